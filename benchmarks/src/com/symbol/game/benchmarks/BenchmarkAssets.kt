@@ -0,0 +1,29 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.gdx.ApplicationAdapter
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.backends.headless.HeadlessApplication
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration
+import com.symbol.game.headless.NoopGL
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+
+// one headless app per forked jvm, the atlas and data files resolve off the classpath
+object BenchmarkAssets {
+
+    val res: Resources
+    val data: Data
+
+    init {
+        HeadlessApplication(object : ApplicationAdapter() {}, HeadlessApplicationConfiguration().apply {
+            renderInterval = -1f
+        })
+        NoopGL.install()
+        res = Resources()
+        data = Data(res)
+    }
+
+    // the headless loop isn't a daemon thread so it has to be stopped for the fork to exit
+    fun shutdown() = Gdx.app.exit()
+
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.utils.ImmutableArray
+import com.symbol.game.ecs.component.ProjectileComponent
+import com.symbol.game.ecs.component.enemy.DormantComponent
+import com.symbol.game.ecs.component.enemy.EnemyComponent
+import com.symbol.game.ecs.system.RemoveSystem
+import com.symbol.game.ecs.system.enemy.EnemyAttackSystem
+import com.symbol.game.headless.FIXED_DT
+import org.openjdk.jmh.annotations.Benchmark
+
+open class EnemyAttackBenchmark : WorldBenchmark() {
+
+    override val systems: Array<Class<out EntitySystem>> =
+            arrayOf(EnemyAttackSystem::class.java, RemoveSystem::class.java)
+
+    private lateinit var projectiles: ImmutableArray<Entity>
+
+    override fun prepare() {
+        projectiles = world.engine.getEntitiesFor(Family.all(ProjectileComponent::class.java).get())
+
+        // every enemy attacks on its own timer instead of waiting for the player to come close
+        world.engine.getEntitiesFor(Family.all(EnemyComponent::class.java).get()).forEach {
+            it.remove(DormantComponent::class.java)
+        }
+    }
+
+    @Benchmark
+    fun frame() {
+        world.engine.update(FIXED_DT)
+
+        // nothing moves or collides the new projectiles, so drop them to keep the world from growing
+        for (i in projectiles.size() - 1 downTo 0) world.engine.removeEntity(projectiles[i])
+    }
+
+}
\ No newline at end of file
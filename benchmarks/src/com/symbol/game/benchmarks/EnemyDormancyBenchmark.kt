@@ -0,0 +1,37 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.utils.ImmutableArray
+import com.symbol.game.ecs.component.ProjectileComponent
+import com.symbol.game.ecs.system.RemoveSystem
+import com.symbol.game.ecs.system.SpatialHashSystem
+import com.symbol.game.ecs.system.enemy.EnemyActivationSystem
+import com.symbol.game.ecs.system.enemy.EnemyAttackSystem
+import com.symbol.game.ecs.system.enemy.EnemyMovementSystem
+import com.symbol.game.headless.FIXED_DT
+import org.openjdk.jmh.annotations.Benchmark
+
+// the player stays at the start of the map so only the nearest enemies ever wake up
+open class EnemyDormancyBenchmark : WorldBenchmark() {
+
+    override val systems: Array<Class<out EntitySystem>> = arrayOf(SpatialHashSystem::class.java,
+            EnemyActivationSystem::class.java, EnemyAttackSystem::class.java,
+            EnemyMovementSystem::class.java, RemoveSystem::class.java)
+
+    private lateinit var projectiles: ImmutableArray<Entity>
+
+    override fun prepare() {
+        projectiles = world.engine.getEntitiesFor(Family.all(ProjectileComponent::class.java).get())
+    }
+
+    @Benchmark
+    fun frame() {
+        world.engine.update(FIXED_DT)
+
+        // nothing moves or collides the new projectiles, so drop them to keep the world from growing
+        for (i in projectiles.size() - 1 downTo 0) world.engine.removeEntity(projectiles[i])
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.EntitySystem
+import com.symbol.game.ecs.system.GravitySystem
+import com.symbol.game.ecs.system.MapCollisionSystem
+import com.symbol.game.headless.FIXED_DT
+import org.openjdk.jmh.annotations.Benchmark
+
+open class MapCollisionBenchmark : WorldBenchmark() {
+
+    // gravity keeps pulling bodies into the ground so every frame has sweeps to resolve
+    override val systems: Array<Class<out EntitySystem>> =
+            arrayOf(MapCollisionSystem::class.java, GravitySystem::class.java)
+
+    @Benchmark
+    fun frame() = world.engine.update(FIXED_DT)
+
+}
\ No newline at end of file
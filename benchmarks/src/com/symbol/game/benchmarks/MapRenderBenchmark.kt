@@ -0,0 +1,51 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.PooledEngine
+import com.badlogic.gdx.graphics.OrthographicCamera
+import com.badlogic.gdx.graphics.g2d.Batch
+import com.symbol.game.Config
+import com.symbol.game.map.MapManager
+import com.symbol.game.map.TILE_SIZE
+import org.openjdk.jmh.annotations.*
+
+private const val PAN_SPEED = 2f
+
+// pans the camera across the map so the visible chunk range keeps changing
+@State(Scope.Thread)
+open class MapRenderBenchmark {
+
+    @Param("50", "200", "1000")
+    @JvmField var entityCount = 0
+
+    @Param("64", "256")
+    @JvmField var mapSize = 0
+
+    private lateinit var mapManager: MapManager
+    private lateinit var batch: Batch
+    private val cam = OrthographicCamera(Config.V_WIDTH.toFloat(), Config.V_HEIGHT.toFloat())
+    private var mapWidth = 0f
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        mapManager = MapManager(PooledEngine(), BenchmarkAssets.res, BenchmarkAssets.data)
+        mapManager.load(ProceduralMap.generate(mapSize, entityCount))
+        batch = MockBatch.create()
+        mapWidth = (mapManager.mapWidth * TILE_SIZE).toFloat()
+        cam.position.set(cam.viewportWidth / 2, cam.viewportHeight / 2, 0f)
+    }
+
+    @Benchmark
+    fun render() {
+        cam.position.x += PAN_SPEED
+        if (cam.position.x > mapWidth) cam.position.x = 0f
+        cam.update()
+        mapManager.render(batch, cam, false)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        mapManager.dispose()
+        BenchmarkAssets.shutdown()
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.gdx.graphics.g2d.Batch
+import java.lang.reflect.Proxy
+
+// a batch that ignores every call so only the caller's own work gets measured
+object MockBatch {
+
+    fun create() : Batch = Proxy.newProxyInstance(Batch::class.java.classLoader, arrayOf(Batch::class.java)) { _, method, _ ->
+        when (method.returnType) {
+            Int::class.javaPrimitiveType -> 0
+            Boolean::class.javaPrimitiveType -> false
+            Float::class.javaPrimitiveType -> 0f
+            else -> null
+        }
+    } as Batch
+
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.gdx.math.RandomXS128
+import com.symbol.game.effects.particle.DEFAULT_INTESITY
+import com.symbol.game.effects.particle.DEFAULT_LIFETIME
+import com.symbol.game.effects.particle.ParticleSpawner
+import com.symbol.game.headless.FIXED_DT
+import com.symbol.game.map.TILE_SIZE
+import org.openjdk.jmh.annotations.*
+
+private const val PARTICLE_COLOR = "p_dot"
+
+// bursts replace what expires each frame so about entityCount particles are alive at once
+@State(Scope.Thread)
+open class ParticleBenchmark {
+
+    @Param("1000", "10000", "50000")
+    @JvmField var entityCount = 0
+
+    @Param("64", "256")
+    @JvmField var mapSize = 0
+
+    private val rand = RandomXS128(0x5eedL)
+    private var color = 0f
+    private var perFrame = 0
+    private var width = 0f
+    private var height = 0f
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        color = BenchmarkAssets.data.getPackedColor(PARTICLE_COLOR)
+        perFrame = maxOf((entityCount * FIXED_DT / DEFAULT_LIFETIME).toInt(), 1)
+        width = (mapSize * TILE_SIZE).toFloat()
+        height = (ProceduralMap.height(mapSize) * TILE_SIZE).toFloat()
+
+        // measures the store itself rather than the budget
+        ParticleSpawner.budget = Int.MAX_VALUE
+        ParticleSpawner.reset()
+        repeat((DEFAULT_LIFETIME / FIXED_DT).toInt()) { update() }
+    }
+
+    @Benchmark
+    fun update() {
+        for (spawned in 0 until perFrame step DEFAULT_INTESITY) {
+            ParticleSpawner.spawn(color, DEFAULT_LIFETIME, minOf(DEFAULT_INTESITY, perFrame - spawned),
+                    rand.nextFloat() * width, rand.nextFloat() * height)
+        }
+        ParticleSpawner.update(FIXED_DT)
+    }
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        ParticleSpawner.reset()
+        BenchmarkAssets.shutdown()
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,16 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.EntitySystem
+import com.symbol.game.ecs.system.MapEntitySystem
+import com.symbol.game.headless.FIXED_DT
+import org.openjdk.jmh.annotations.Benchmark
+
+// a pair of portals every 32 tiles checked against every enemy, projectile and the player
+open class PortalBenchmark : WorldBenchmark() {
+
+    override val systems: Array<Class<out EntitySystem>> = arrayOf(MapEntitySystem::class.java)
+
+    @Benchmark
+    fun frame() = world.engine.update(FIXED_DT)
+
+}
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion
+import com.badlogic.gdx.maps.MapLayer
+import com.badlogic.gdx.maps.objects.RectangleMapObject
+import com.badlogic.gdx.maps.tiled.TiledMap
+import com.badlogic.gdx.maps.tiled.TiledMapTileLayer
+import com.badlogic.gdx.maps.tiled.tiles.StaticTiledMapTile
+import com.badlogic.gdx.math.RandomXS128
+import com.symbol.game.ecs.entity.EnemyType
+import com.symbol.game.ecs.entity.MapEntityType
+import com.symbol.game.map.TILE_SIZE
+
+private const val GROUND_ROWS = 2
+private const val MIN_HEIGHT = 24
+private const val PLATFORM_SPACING = 12
+private const val PORTAL_SPACING = 32
+
+private val ENEMY_TYPES = arrayOf(EnemyType.EConstant, EnemyType.SquareRoot, EnemyType.Exists,
+        EnemyType.Summation, EnemyType.BigPi, EnemyType.In, EnemyType.Theta)
+
+// builds the same layers MapManager reads from a tmx file so benchmarks need no map assets
+object ProceduralMap {
+
+    fun generate(width: Int, enemies: Int, seed: Long = 0L) : TiledMap {
+        val height = height(width)
+        val rand = RandomXS128(seed)
+
+        val tiles = TiledMapTileLayer(width, height, TILE_SIZE, TILE_SIZE).apply { name = "tile" }
+        val groundTile = StaticTiledMapTile(TextureRegion()).apply { id = 1 }
+        val platformTile = StaticTiledMapTile(TextureRegion()).apply { id = 2 }
+        val collision = MapLayer().apply { name = "collision" }
+
+        fill(tiles, groundTile, 0, 0, width, GROUND_ROWS)
+        collision.objects.add(rect(0, 0, width, GROUND_ROWS))
+
+        for (col in PLATFORM_SPACING until width - PLATFORM_SPACING step PLATFORM_SPACING) {
+            val row = GROUND_ROWS + 3 + rand.nextInt(height - GROUND_ROWS - 8)
+            val length = 4 + rand.nextInt(5)
+            fill(tiles, platformTile, col, row, length, 1)
+            collision.objects.add(rect(col, row, length, 1))
+        }
+
+        val player = MapLayer().apply { name = "player" }
+        player.objects.add(rect(2, GROUND_ROWS, 1, 1))
+
+        val enemy = MapLayer().apply { name = "enemy" }
+        for (i in 0 until enemies) {
+            val col = 8 + i * (width - 12) / maxOf(enemies, 1)
+            val row = GROUND_ROWS + rand.nextInt(height - GROUND_ROWS - 4)
+            enemy.objects.add(rect(col, row, 1, 1).apply {
+                properties.put("type", ENEMY_TYPES[i % ENEMY_TYPES.size].typeStr)
+                properties.put("facingRight", rand.nextBoolean())
+            })
+        }
+
+        val mapEntities = MapLayer().apply { name = "map" }
+        for (i in 0 until width / PORTAL_SPACING) {
+            val col = i * PORTAL_SPACING + 6
+            mapEntities.objects.add(portal(col, 2 * i, 2 * i + 1))
+            mapEntities.objects.add(portal(col + PORTAL_SPACING / 2, 2 * i + 1, 2 * i))
+        }
+
+        return TiledMap().apply {
+            layers.add(tiles)
+            layers.add(collision)
+            layers.add(player)
+            layers.add(enemy)
+            layers.add(mapEntities)
+        }
+    }
+
+    fun height(width: Int) : Int = maxOf(width / 2, MIN_HEIGHT)
+
+    private fun fill(layer: TiledMapTileLayer, tile: StaticTiledMapTile, col: Int, row: Int, width: Int, height: Int) {
+        for (r in row until row + height) {
+            for (c in col until col + width) {
+                layer.setCell(c, r, TiledMapTileLayer.Cell().setTile(tile))
+            }
+        }
+    }
+
+    private fun rect(col: Int, row: Int, width: Int, height: Int) : RectangleMapObject =
+            RectangleMapObject((col * TILE_SIZE).toFloat(), (row * TILE_SIZE).toFloat(),
+                    (width * TILE_SIZE).toFloat(), (height * TILE_SIZE).toFloat())
+
+    private fun portal(col: Int, id: Int, target: Int) : RectangleMapObject =
+            rect(col, GROUND_ROWS, 1, 1).apply {
+                properties.put("type", MapEntityType.Portal.typeStr)
+                properties.put("id", id)
+                properties.put("target", target)
+            }
+
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.utils.ImmutableArray
+import com.badlogic.gdx.math.MathUtils
+import com.symbol.game.ecs.EntityBuilder
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.ProjectileComponent
+import com.symbol.game.ecs.system.MovementSystem
+import com.symbol.game.ecs.system.ProjectileSystem
+import com.symbol.game.ecs.system.RemoveSystem
+import com.symbol.game.ecs.system.SpatialHashSystem
+import com.symbol.game.effects.particle.ParticleSpawner
+import com.symbol.game.headless.FIXED_DT
+import com.symbol.game.map.TILE_SIZE
+import org.openjdk.jmh.annotations.Benchmark
+
+private const val PROJECTILE_SPEED = 60f
+private const val PROJECTILE_TEXTURE = "p_dot"
+
+// keeps entityCount projectiles in flight, half fired by the player so they test against enemies
+open class ProjectileBenchmark : WorldBenchmark() {
+
+    override val systems: Array<Class<out EntitySystem>> = arrayOf(MovementSystem::class.java,
+            SpatialHashSystem::class.java, ProjectileSystem::class.java, RemoveSystem::class.java)
+
+    private lateinit var projectiles: ImmutableArray<Entity>
+    private var mapWidth = 0f
+    private var mapHeight = 0f
+
+    override fun prepare() {
+        projectiles = world.engine.getEntitiesFor(Family.all(ProjectileComponent::class.java).get())
+        mapWidth = (mapSize * TILE_SIZE).toFloat()
+        mapHeight = (ProceduralMap.height(mapSize) * TILE_SIZE).toFloat()
+        refill()
+    }
+
+    @Benchmark
+    fun frame() {
+        world.engine.update(FIXED_DT)
+        ParticleSpawner.update(FIXED_DT)
+        refill()
+    }
+
+    // stands in for MapCollisionSystem's bounds check, then tops the population back up
+    private fun refill() {
+        for (i in projectiles.size() - 1 downTo 0) {
+            val position = Mapper.POS_MAPPER[projectiles[i]]
+            if (position.x < 0 || position.x > mapWidth || position.y < 0 || position.y > mapHeight) {
+                world.engine.removeEntity(projectiles[i])
+            }
+        }
+        while (projectiles.size() < entityCount) spawn(projectiles.size() % 2 == 0)
+    }
+
+    private fun spawn(fromPlayer: Boolean) {
+        val texture = BenchmarkAssets.res.getTexture(PROJECTILE_TEXTURE)!!
+        val bw = texture.regionWidth - 1
+        val bh = texture.regionHeight - 1
+        val angle = rand.nextInt(8) * 45f
+
+        val builder = EntityBuilder.instance(world.engine)
+                .projectile(textureStr = PROJECTILE_TEXTURE, damage = 1)
+                .color(BenchmarkAssets.data.getColor(PROJECTILE_TEXTURE)!!)
+                .position(rand.nextFloat() * mapWidth, rand.nextFloat() * mapHeight)
+                .velocity(dx = PROJECTILE_SPEED * MathUtils.cosDeg(angle),
+                        dy = PROJECTILE_SPEED * MathUtils.sinDeg(angle), speed = PROJECTILE_SPEED)
+                .boundingBox(bw.toFloat(), bh.toFloat())
+                .texture(texture, PROJECTILE_TEXTURE)
+                .direction(yFlip = true).remove()
+        if (fromPlayer) builder.player()
+        builder.build()
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+package com.symbol.game.benchmarks
+
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.gdx.math.RandomXS128
+import com.symbol.game.headless.SimulationWorld
+import org.openjdk.jmh.annotations.*
+
+private const val SEED = 0x5eedL
+private const val SETTLE_FRAMES = 60
+
+// a procedurally generated world where only the systems under test keep processing
+@State(Scope.Thread)
+abstract class WorldBenchmark {
+
+    @Param("50", "200", "1000")
+    @JvmField var entityCount = 0
+
+    @Param("64", "256")
+    @JvmField var mapSize = 0
+
+    protected lateinit var world: SimulationWorld
+    protected val rand = RandomXS128(SEED)
+
+    protected abstract val systems: Array<Class<out EntitySystem>>
+
+    @Setup(Level.Trial)
+    fun setUp() {
+        world = SimulationWorld(BenchmarkAssets.res, BenchmarkAssets.data)
+        world.load(ProceduralMap.generate(mapSize, entityCount, SEED))
+        world.run(SETTLE_FRAMES)
+
+        world.engine.systems.forEach { it.setProcessing(systems.contains(it.javaClass)) }
+        prepare()
+    }
+
+    protected open fun prepare() {}
+
+    @TearDown(Level.Trial)
+    fun tearDown() {
+        world.dispose()
+        BenchmarkAssets.shutdown()
+    }
+
+}
\ No newline at end of file
@@ -18,7 +18,31 @@ object Config {
 
     const val BG_FPS = 10
     const val FG_FPS = 60
-    const val DELTA_TIME_BOUND = 1 / 30f
+
+    // the simulation ticks at a fixed rate however often frames are drawn
+    const val SIM_HZ = 60
+    const val SIM_STEP = 1f / SIM_HZ
+    // a long frame catches up at most this many steps, the rest of the time is dropped
+    const val MAX_SIM_STEPS = 5
+    const val DELTA_TIME_BOUND = MAX_SIM_STEPS * SIM_STEP
+
+    // the map is simulated in square chunks of this many tiles, anything further than the radius
+    // in chunks from the camera is frozen. the radius has to cover the rotated view
+    const val SIM_CHUNK_TILES = 16
+    const val SIM_RADIUS_CHUNKS = 2
+
+    // the desktop launcher only runs the chunked loops on a fork-join pool when this is on. off until it's
+    // been measured faster on a multi-core machine
+    const val PARALLEL_RUNNER = false
+
+    // a per-entity loop is only split up for a parallel runner once it has this many entities.
+    // movement and gravity cost about 25 ns an entity, handing a loop to the pool about 4 us and each chunk
+    // a few tenths of a microsecond more, so smaller loops or chunks spend a large share of their time on overhead
+    const val PARALLEL_THRESHOLD = 1024
+    const val PARALLEL_CHUNK = 256
+
+    const val PARTICLE_BUDGET = 4096
+    const val ANDROID_PARTICLE_BUDGET = 1024
 
     const val V_SYNC = false
 
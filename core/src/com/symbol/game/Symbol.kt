@@ -9,6 +9,8 @@ import com.badlogic.gdx.graphics.g2d.SpriteBatch
 import com.badlogic.gdx.graphics.profiling.GLProfiler
 import com.badlogic.gdx.math.Vector2
 import com.badlogic.gdx.scenes.scene2d.ui.Label
+import com.symbol.game.ecs.SystemRunner
+import com.symbol.game.effects.particle.ParticleSpawner
 import com.symbol.game.input.MouseCursor
 import com.symbol.game.map.camera.Background
 import com.symbol.game.screen.*
@@ -16,7 +18,7 @@ import com.symbol.game.util.Data
 import com.symbol.game.util.Resources
 import kotlin.math.min
 
-class Symbol : Game() {
+class Symbol @JvmOverloads constructor(val systemRunner: SystemRunner = SystemRunner.Sequential) : Game() {
 
     lateinit var batch: Batch private set
     lateinit var res: Resources private set
@@ -36,6 +38,7 @@ class Symbol : Game() {
     val mapSelectScreen: MapSelectScreen by lazy { MapSelectScreen(this) }
 
     lateinit var fps: Label
+    private var lastFps = -1
 
     override fun create() {
         batch = SpriteBatch()
@@ -46,6 +49,7 @@ class Symbol : Game() {
             mouseCursor = MouseCursor()
             mouseCursor?.createCursor()
         }
+        else ParticleSpawner.budget = Config.ANDROID_PARTICLE_BUDGET
 
         if (Config.isDebug()) {
             fps = Label("", res.getLabelStyle(Color.BLACK))
@@ -73,7 +77,9 @@ class Symbol : Game() {
                 "\tDRAW CALLS: ${profiler.drawCalls}, \n" +
                 "\tSHADER SWITCHES: ${profiler.shaderSwitches}, \n" +
                 "\tTEXTURE BINDINGS: ${profiler.textureBindings}, \n" +
-                "\tVERTEX COUNT: $vertexCount \n")
+                "\tVERTEX COUNT: $vertexCount \n" +
+                "\tPARTICLES: ${ParticleSpawner.activeCount} active, ${ParticleSpawner.evictedCount} evicted, " +
+                "${ParticleSpawner.pooledCount} pooled \n")
         profiler.reset()
     }
 
@@ -89,7 +95,11 @@ class Symbol : Game() {
     override fun render() {
         screen?.render(min(Config.DELTA_TIME_BOUND, Gdx.graphics.deltaTime))
         mouseCursor?.update(Gdx.graphics.deltaTime)
-        if (Config.isDebug()) fps.setText("${Gdx.graphics.getFramesPerSecond()} FPS")
+        // only rebuilt when the value changes so the label doesn't allocate every frame
+        if (Config.isDebug() && Gdx.graphics.framesPerSecond != lastFps) {
+            lastFps = Gdx.graphics.framesPerSecond
+            fps.setText("$lastFps FPS")
+        }
     }
 
     override fun dispose() {
@@ -0,0 +1,375 @@
+package com.symbol.game.ecs
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion
+import com.symbol.game.ecs.component.StatusEffect
+import com.symbol.game.ecs.component.enemy.AttackComponent
+import com.symbol.game.ecs.entity.EnemyAttackType
+import com.symbol.game.ecs.entity.EnemyMovementType
+import com.symbol.game.ecs.entity.EnemyType
+import com.symbol.game.util.ColorUtil
+import com.symbol.game.util.Data
+import com.symbol.game.util.ORBIT
+import com.symbol.game.util.Resources
+
+private const val MAX_CHARGE_INDEX = 4
+
+// templates for everything spawned repeatedly, resolved once per set of resources
+object Archetypes {
+
+    private var res: Resources? = null
+    private lateinit var data: Data
+
+    private val enemies = arrayOfNulls<EntityTemplate>(EnemyType.values().size)
+    private val enemyProjectiles = arrayOfNulls<EntityTemplate>(EnemyType.values().size)
+    private val gravityProjectiles = arrayOfNulls<EntityTemplate>(EnemyType.values().size)
+    private val subProjectiles: MutableMap<String, EntityTemplate> = HashMap()
+    private val playerProjectiles = arrayOfNulls<EntityTemplate>(MAX_CHARGE_INDEX + 1)
+    lateinit var playerSubProjectile: EntityTemplate private set
+
+    fun load(res: Resources, data: Data) {
+        if (this.res === res) return
+        this.res = res
+        this.data = data
+
+        enemyProjectiles.fill(null)
+        gravityProjectiles.fill(null)
+        subProjectiles.clear()
+        EnemyType.values().forEach { enemies[it.ordinal] = createEnemy(it) }
+        for (chargeIndex in 0..MAX_CHARGE_INDEX) playerProjectiles[chargeIndex] = createPlayerProjectile(chargeIndex)
+        playerSubProjectile = createPlayerSubProjectile()
+    }
+
+    fun enemy(type: EnemyType) : EntityTemplate? = enemies[type.ordinal]
+
+    // keyed by enemy type since the template keeps the damage, detonate time and acceleration of the attack
+    fun enemyProjectile(type: EnemyType, attack: AttackComponent, gravity: Boolean = false) : EntityTemplate {
+        val templates = if (gravity) gravityProjectiles else enemyProjectiles
+        return templates[type.ordinal] ?: createEnemyProjectile(attack, gravity).also { templates[type.ordinal] = it }
+    }
+
+    fun subProjectile(textureStr: String) : EntityTemplate =
+            subProjectiles.getOrPut(textureStr) { createSubProjectile(textureStr) }
+
+    fun playerProjectile(chargeIndex: Int) : EntityTemplate = playerProjectiles[chargeIndex]!!
+
+    private fun createEnemy(type: EnemyType) : EntityTemplate? {
+        val res = res!!
+        val textureStr = if (type == EnemyType.Because) "e_${type.typeStr}0" else "e_${type.typeStr}"
+        val texture = res.getTexture(textureStr)
+        if (type == EnemyType.PercentOrbit) return createPercentOrbit()
+        if (texture == null) return null
+        val color = ColorUtil.pack(data.getColor("e_${type.typeStr}")!!)
+
+        return when (type) {
+            EnemyType.EConstant -> EntityTemplate {
+                enemy(enemyType = type)
+                        .statusEffect()
+                        .activation(150f)
+                        .attack(damage = 1, projectileSpeed = 45f, attackTexture = "p_dot", attackRate = 1.5f)
+                        .color(color)
+                        .health(1000)
+                        .boundingBox(7f, 7f)
+                        .velocity(speed = 25f)
+                        .direction()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.SquareRoot -> EntityTemplate {
+                enemy(enemyType = type, movementType = EnemyMovementType.Charge)
+                        .statusEffect()
+                        .activation(75f)
+                        .attack(damage = 3)
+                        .color(color)
+                        .health(3)
+                        .boundingBox(10f, 8f)
+                        .velocity(speed = 60f)
+                        .direction()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.Exists -> {
+                val damage = data.getPlayerData("hp").asInt()
+                EntityTemplate {
+                    enemy(enemyType = type, movementType = EnemyMovementType.Charge)
+                            .statusEffect()
+                            .activation(90f)
+                            .attack(damage = damage)
+                            .color(color)
+                            .health(2)
+                            .boundingBox(9f, 13f)
+                            .velocity(speed = 75f)
+                            .direction()
+                            .texture(texture, textureStr)
+                            .gravity().remove()
+                }
+            }
+            EnemyType.Summation -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
+                        .statusEffect()
+                        .activation(120f)
+                        .attack(damage = 2, attackTexture = "p_dot4", attackRate = 2.5f, projectileSpeed = 45f)
+                        .color(color)
+                        .health(2)
+                        .boundingBox(10f, 13f)
+                        .velocity()
+                        .direction()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.BigPi -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
+                        .statusEffect()
+                        .activation(120f)
+                        .attack(damage = 4, attackTexture = "p_big_ll", attackRate = 1.4f, projectileSpeed = 45f)
+                        .color(color)
+                        .health(4)
+                        .boundingBox(11f, 13f)
+                        .velocity()
+                        .direction()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.In -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
+                        .statusEffect()
+                        .activation(100f)
+                        .attack(damage = 1, attackTexture = "p_xor", attackRate = 2f, projectileSpeed = 45f, attackDetonateTime = 2f)
+                        .color(color)
+                        .health(3)
+                        .boundingBox(11f, 11f)
+                        .velocity()
+                        .direction()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.BigOmega -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.SprayThree)
+                        .statusEffect()
+                        .activation(150f)
+                        .attack(damage = 2, attackTexture = "p_cup", attackRate = 2.5f, projectileSpeed = 200f)
+                        .color(color)
+                        .health(3)
+                        .boundingBox(12f, 13f)
+                        .velocity()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.NaturalJoin -> EntityTemplate {
+                enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth)
+                        .statusEffect()
+                        .activation(100f)
+                        .attack(damage = 2, attackTexture = "p_ltimes", projectileSpeed = 45f)
+                        .explode()
+                        .color(color)
+                        .health(4)
+                        .boundingBox(9f, 7f)
+                        .velocity(speed = 30f)
+                        .texture(texture, textureStr)
+                        .direction()
+                        .knockback().gravity().remove()
+            }
+            EnemyType.BigPhi -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.ShootAndQuake)
+                        .statusEffect()
+                        .activation(200f)
+                        .attack(damage = 4, attackTexture = "p_alpha", attackRate = 1.5f, projectileSpeed = 60f)
+                        .explode()
+                        .color(color)
+                        .health(10)
+                        .boundingBox(14f, 16f)
+                        .velocity()
+                        .jump(150f)
+                        .texture(texture, textureStr)
+                        .direction()
+                        .gravity().remove()
+            }
+            EnemyType.Percent -> EntityTemplate {
+                enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth, visible = false)
+                        .statusEffect()
+                        .activation(120f)
+                        .attack(damage = 1)
+                        .color(color)
+                        .health(20)
+                        .boundingBox(10f, 10f)
+                        .velocity(speed = 20f)
+                        .jump(120f)
+                        .texture(texture, textureStr)
+                        .direction()
+                        .gravity(gravity = -480f, terminalVelocity = -240f).knockback().remove()
+            }
+            EnemyType.Nabla -> EntityTemplate {
+                enemy(enemyType = type)
+                        .activation(140f)
+                        .attack(damage = 4)
+                        .color(color)
+                        .health(1)
+                        .gravity(gravity = -1200f, terminalVelocity = -160f, collidable = false)
+                        .boundingBox(texture.regionWidth.toFloat() - 4, texture.regionHeight.toFloat())
+                        .velocity()
+                        .texture(texture, textureStr)
+                        .remove()
+            }
+            EnemyType.CIntegral -> EntityTemplate {
+                enemy(enemyType = type, attackType = EnemyAttackType.ArcTwo)
+                        .statusEffect()
+                        .activation(120f)
+                        .attack(damage = 4, attackTexture = "p_succ", attackRate = 2f,
+                                projectileSpeed = 80f, projectileAcceleration = 80f)
+                        .corporeal(incorporealTime = 2f)
+                        .color(color)
+                        .health(5)
+                        .boundingBox(8f, 16f)
+                        .direction()
+                        .velocity()
+                        .texture(texture, textureStr)
+                        .gravity().remove()
+            }
+            EnemyType.Because -> EntityTemplate {
+                enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth)
+                        .statusEffect()
+                        .activation(120f)
+                        .attack(damage = 2, attackTexture = "p_because", projectileSpeed = 60f)
+                        .trap()
+                        .color(color)
+                        .health(100)
+                        .boundingBox(14f, 12f)
+                        .direction()
+                        .velocity(speed = 20f)
+                        .texture(texture, "e_because")
+                        .gravity().remove()
+            }
+            EnemyType.Block -> EntityTemplate {
+                enemy(enemyType = type)
+                        .statusEffect()
+                        .attack()
+                        .activation()
+                        .block()
+                        .color(color)
+                        .health(15)
+                        .boundingBox(8f, 8f)
+                        .direction()
+                        .velocity()
+                        .texture(texture, "e_block")
+                        .remove()
+            }
+            else -> null
+        }
+    }
+
+    // the parent and starting angle are set per spawn
+    private fun createPercentOrbit() : EntityTemplate {
+        val type = EnemyType.Percent
+        val textureStr = "e_${type.typeStr}$ORBIT"
+        val texture = res!!.getTexture(textureStr)!!
+        val color = ColorUtil.pack(data.getColor("e_${type.typeStr}")!!)
+
+        return EntityTemplate {
+            enemy(enemyType = type, movementType = EnemyMovementType.Orbit, visible = false)
+                    .activation(150f)
+                    .attack(damage = 1)
+                    .color(color)
+                    .health(1)
+                    .boundingBox(6f, 6f)
+                    .velocity()
+                    .texture(texture, textureStr)
+                    .orbit(speed = 2f, radius = 15f)
+                    .remove()
+        }
+    }
+
+    // parentFacingRight and movementType are set per spawn
+    private fun createEnemyProjectile(attack: AttackComponent, gravity: Boolean) : EntityTemplate {
+        val textureStr = attack.attackTexture!!
+        val texture = res!!.getTexture(textureStr)!!
+        val color = ColorUtil.pack(data.getColor(textureStr)!!)
+        val bw = (texture.regionWidth - 1).toFloat()
+        val bh = (texture.regionHeight - 1).toFloat()
+        val destroyable = attack.projectileDestroyable
+        val damage = attack.damage
+
+        if (gravity) {
+            return EntityTemplate(bw, bh) {
+                projectile(collidesWithTerrain = false, collidesWithProjectiles = destroyable,
+                        textureStr = textureStr, damage = damage)
+                        .color(color)
+                        .boundingBox(bw, bh)
+                        .texture(texture, textureStr)
+                        .direction(yFlip = true).gravity(collidable = false).remove()
+            }
+        }
+
+        val detonateTime = attack.attackDetonateTime
+        val acceleration = attack.projectileAcceleration
+        return EntityTemplate(bw, bh) {
+            projectile(collidesWithTerrain = false, collidesWithProjectiles = destroyable,
+                    textureStr = textureStr, damage = damage, detonateTime = detonateTime, acceleration = acceleration)
+                    .color(color)
+                    .boundingBox(bw, bh)
+                    .texture(texture, textureStr)
+                    .direction(yFlip = true).remove()
+        }
+    }
+
+    // damage is set per spawn from the detonating projectile
+    private fun createSubProjectile(textureStr: String) : EntityTemplate {
+        val texture = res!!.getSubProjectileTextureFor(textureStr)!!
+        return subProjectile(texture) {
+            projectile(sub = true, collidesWithTerrain = false)
+        }
+    }
+
+    private fun createPlayerSubProjectile() : EntityTemplate {
+        val key = data.getPlayerData("projResKey").asString() + MAX_CHARGE_INDEX
+        val texture = res!!.getSubProjectileTextureFor(key)!!
+        val color = ColorUtil.pack(data.getColor("p_dot")!!)
+        return subProjectile(texture) {
+            projectile(sub = true, collidesWithTerrain = true, damage = 1).player().color(color)
+        }
+    }
+
+    private fun subProjectile(texture: TextureRegion, configure: EntityBuilder.() -> Unit) : EntityTemplate {
+        val bw = (texture.regionWidth - 1).toFloat()
+        val bh = (texture.regionHeight - 1).toFloat()
+        return EntityTemplate(bw, bh) {
+            configure()
+            boundingBox(bw, bh).texture(texture).direction(yFlip = true).remove()
+        }
+    }
+
+    // 0 and 1 are the single and rapid shots, 2 and up the charged shots
+    private fun createPlayerProjectile(chargeIndex: Int) : EntityTemplate {
+        val resKey = data.getPlayerData("projResKey").asString()
+        val key = if (chargeIndex > 1) resKey + chargeIndex else resKey
+        val texture = res!!.getTexture(key)!!
+        val color = ColorUtil.pack(data.getColor(key)!!)
+        val width = texture.regionWidth.toFloat()
+        val height = texture.regionHeight.toFloat()
+        val damage = if (chargeIndex > 1) chargeIndex + 1 else data.getPlayerData("defaultDamage").asInt()
+        val knockback = data.getPlayerData("projKnockback").asFloat()
+
+        val effect = when (chargeIndex) {
+            2 -> StatusEffect.Slow
+            3 -> StatusEffect.Snare
+            4 -> StatusEffect.Stun
+            else -> StatusEffect.None
+        }
+        val effectValue = if (effect == StatusEffect.Slow) data.getPlayerData("slowPercentage").asFloat() else 0f
+        val effectDuration = when (effect) {
+            StatusEffect.Slow -> data.getPlayerData("slowDuration").asFloat()
+            StatusEffect.Snare -> data.getPlayerData("snareDuration").asFloat()
+            StatusEffect.Stun -> data.getPlayerData("stunDuration").asFloat()
+            else -> 0f
+        }
+
+        return EntityTemplate(width, height) {
+            projectile(damage = damage, knockback = knockback, playerType = chargeIndex, textureStr = key)
+                    .player()
+                    .color(color)
+                    .boundingBox(width, height)
+                    .texture(texture, key)
+                    .direction().remove()
+            if (effect != StatusEffect.None) statusEffect(apply = effect, value = effectValue, duration = effectDuration)
+        }
+    }
+
+}
\ No newline at end of file
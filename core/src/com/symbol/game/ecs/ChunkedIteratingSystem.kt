@@ -0,0 +1,31 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.systems.IteratingSystem
+import com.symbol.game.Config
+
+// an IteratingSystem whose loop goes to the runner once there are enough entities to be worth splitting
+abstract class ChunkedIteratingSystem(family: Family) : IteratingSystem(family), ChunkedSystem {
+
+    override var runner: SystemRunner = SystemRunner.Sequential
+    override var threshold = Config.PARALLEL_THRESHOLD
+    override var chunkSize = Config.PARALLEL_CHUNK
+
+    private var dt = 0f
+    private val chunk = object : SystemRunner.Chunk {
+        override fun process(start: Int, end: Int) {
+            val entities = entities
+            for (i in start until end) processEntity(entities[i], dt)
+        }
+    }
+
+    override fun update(dt: Float) {
+        if (runner === SystemRunner.Sequential || entities.size() < threshold) {
+            super.update(dt)
+            return
+        }
+        this.dt = dt
+        runner.runChunks(entities.size(), chunkSize, chunk)
+    }
+
+}
\ No newline at end of file
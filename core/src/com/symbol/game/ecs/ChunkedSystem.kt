@@ -0,0 +1,9 @@
+package com.symbol.game.ecs
+
+// a system with a per-entity loop the runner may split into chunks. every entity has to be handled on its own,
+// writing only to its own components, so the result is the same however the loop is split
+interface ChunkedSystem {
+    var runner: SystemRunner
+    var threshold: Int
+    var chunkSize: Int
+}
\ No newline at end of file
@@ -15,6 +15,7 @@ import com.symbol.game.ecs.entity.EnemyType
 import com.symbol.game.ecs.entity.MapEntityType
 import com.symbol.game.ecs.system.GRAVITY
 import com.symbol.game.ecs.system.TERMINAL_VELOCITY
+import com.symbol.game.util.ColorUtil
 import com.symbol.game.util.Orientation
 
 class EntityBuilder(private val engine: PooledEngine) {
@@ -37,10 +38,11 @@ class EntityBuilder(private val engine: PooledEngine) {
     private var orbitComponent: OrbitComponent? = null
     private var colorComponent: ColorComponent? = null
     private var statusEffectComponent: StatusEffectComponent? = null
-    private var affectAllComponent: AffectAllComponent? = null
+    private var lastEntityComponent: LastEntityComponent? = null
 
     private var enemyComponent: EnemyComponent? = null
     private var activationComponent: ActivationComponent? = null
+    private var dormantComponent: DormantComponent? = null
     private var corporalComponent: CorporealComponent? = null
     private var attackComponent: AttackComponent? = null
     private var explodeComponent: ExplodeComponent? = null
@@ -63,6 +65,7 @@ class EntityBuilder(private val engine: PooledEngine) {
     private var backAndForthComponent: BackAndForthComponent? = null
     private var accelerationGateComponent: AccelerationGateComponent? = null
 
+    // a builder is left empty by build, so whoever spawns can keep one around instead of making one per entity
     companion object {
         fun instance(engine: PooledEngine) : EntityBuilder = EntityBuilder(engine)
     }
@@ -85,7 +88,8 @@ class EntityBuilder(private val engine: PooledEngine) {
                    knockback: Float = 0f,
                    playerType: Int = 0,
                    detonateTime: Float = 0f,
-                   acceleration: Float = 0f) : EntityBuilder {
+                   acceleration: Float = 0f,
+                   affectAll: Boolean = false) : EntityBuilder {
         projectileComponent = engine.createComponent(ProjectileComponent::class.java).apply {
             this.movementType = movementType
             this.parentFacingRight = parentFacingRight
@@ -98,13 +102,17 @@ class EntityBuilder(private val engine: PooledEngine) {
             this.playerType = playerType
             this.detonateTime = detonateTime
             this.acceleration = acceleration
+            this.affectAll = affectAll
         }
+        lastEntity()
         return this
     }
 
-    fun color(hex: String) : EntityBuilder {
+    fun color(hex: String) : EntityBuilder = color(ColorUtil.pack(hex))
+
+    fun color(packed: Float) : EntityBuilder {
         colorComponent = engine.createComponent(ColorComponent::class.java).apply {
-            this.hex = hex
+            this.packed = packed
         }
         return this
     }
@@ -221,9 +229,10 @@ class EntityBuilder(private val engine: PooledEngine) {
         return this
     }
 
-    fun affectAll() : EntityBuilder {
-        affectAllComponent = engine.createComponent(AffectAllComponent::class.java)
-        return this
+    // portals and mirrors remember the last one an entity went through, it's there from spawn so
+    // entities never change families while they're in the engine
+    private fun lastEntity() {
+        if (lastEntityComponent == null) lastEntityComponent = engine.createComponent(LastEntityComponent::class.java)
     }
 
     fun enemy(enemyType: EnemyType = EnemyType.None,
@@ -238,6 +247,7 @@ class EntityBuilder(private val engine: PooledEngine) {
             this.parent = parent
             this.visible = visible
         }
+        lastEntity()
         return this
     }
 
@@ -245,6 +255,8 @@ class EntityBuilder(private val engine: PooledEngine) {
         activationComponent = engine.createComponent(ActivationComponent::class.java).apply {
             this.activationRange = activationRange
         }
+        // without a range the enemy is active from the start
+        if (activationRange != -1f) dormantComponent = engine.createComponent(DormantComponent::class.java)
         return this
     }
 
@@ -420,10 +432,11 @@ class EntityBuilder(private val engine: PooledEngine) {
         velocityComponent?.let { entity.add(it) }
         orbitComponent?.let { entity.add(it) }
         statusEffectComponent?.let { entity.add(it) }
-        affectAllComponent?.let { entity.add(it) }
+        lastEntityComponent?.let { entity.add(it) }
 
         enemyComponent?.let { entity.add(it) }
         activationComponent?.let { entity.add(it) }
+        dormantComponent?.let { entity.add(it) }
         corporalComponent?.let { entity.add(it) }
         attackComponent?.let { entity.add(it) }
         explodeComponent?.let { entity.add(it) }
@@ -446,8 +459,57 @@ class EntityBuilder(private val engine: PooledEngine) {
         backAndForthComponent?.let { entity.add(it) }
         accelerationGateComponent?.let { entity.add(it) }
 
+        // emptied before the entity goes in, a listener that spawns through this builder starts from scratch
+        clear()
         engine.addEntity(entity)
         return entity
     }
 
+    private fun clear() {
+        playerComponent = null
+        projectileComponent = null
+
+        boundingBoxComponent = null
+        boundingCircleComponent = null
+        directionComponent = null
+        gravityComponent = null
+        jumpComponent = null
+        healthComponent = null
+        chargeComponent = null
+        knockbackComponent = null
+        positionComponent = null
+        removeComponent = null
+        textureComponent = null
+        velocityComponent = null
+        orbitComponent = null
+        colorComponent = null
+        statusEffectComponent = null
+        lastEntityComponent = null
+
+        enemyComponent = null
+        activationComponent = null
+        dormantComponent = null
+        corporalComponent = null
+        attackComponent = null
+        explodeComponent = null
+        teleportComponent = null
+        lastStandComponent = null
+        trapComponent = null
+        blockComponent = null
+
+        mapEntityComponent = null
+        movingPlatformComponent = null
+        portalComponent = null
+        clampComponent = null
+        healthPackComponent = null
+        squareSwitchComponent = null
+        toggleTileComponent = null
+        forceFieldComponent = null
+        damageBoostComponent = null
+        mirrorComponent = null
+        invertSwitchComponent = null
+        backAndForthComponent = null
+        accelerationGateComponent = null
+    }
+
 }
\ No newline at end of file
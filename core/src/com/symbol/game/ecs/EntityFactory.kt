@@ -9,245 +9,28 @@ import com.symbol.game.util.*
 
 object EntityFactory {
 
-    fun createEnemy(engine: PooledEngine, res: Resources, data: Data,
-                    type: EnemyType, rect: Rectangle, facingRight: Boolean) {
-        val textureStr = if (type == EnemyType.Because) "e_${type.typeStr}0" else "e_${type.typeStr}"
-        val texture = res.getTexture(textureStr)!!
-        val color = data.getColor("e_${type.typeStr}")!!
-        when (type) {
-            EnemyType.EConstant -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type)
-                        .statusEffect()
-                        .activation(150f)
-                        .attack(damage = 1, projectileSpeed = 45f, attackTexture = "p_dot", attackRate = 1.5f)
-                        .color(color)
-                        .health(1000)
-                        .boundingBox(7f, 7f)
-                        .position(rect.x, rect.y)
-                        .velocity(speed = 25f)
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.SquareRoot -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, movementType = EnemyMovementType.Charge)
-                        .statusEffect()
-                        .activation(75f)
-                        .attack(damage = 3)
-                        .color(color)
-                        .health(3)
-                        .boundingBox(10f, 8f)
-                        .position(rect.x, rect.y)
-                        .velocity(speed = 60f)
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.Exists -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, movementType = EnemyMovementType.Charge)
-                        .statusEffect()
-                        .activation(90f)
-                        .attack(damage = data.getPlayerData("hp").asInt())
-                        .color(color)
-                        .health(2)
-                        .boundingBox(9f, 13f)
-                        .position(rect.x, rect.y)
-                        .velocity(speed = 75f)
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.Summation -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
-                        .statusEffect()
-                        .activation(120f)
-                        .attack(damage = 2, attackTexture = "p_dot4", attackRate = 2.5f, projectileSpeed = 45f)
-                        .color(color)
-                        .health(2)
-                        .boundingBox(10f, 13f)
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.BigPi -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
-                        .statusEffect()
-                        .activation(120f)
-                        .attack(damage = 4, attackTexture = "p_big_ll", attackRate = 1.4f, projectileSpeed = 45f)
-                        .color(color)
-                        .health(4)
-                        .boundingBox(11f, 13f)
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.In -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.ShootOne)
-                        .statusEffect()
-                        .activation(100f)
-                        .attack(damage = 1, attackTexture = "p_xor", attackRate = 2f, projectileSpeed = 45f, attackDetonateTime = 2f)
-                        .color(color)
-                        .health(3)
-                        .boundingBox(11f, 11f)
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .direction(facingRight = facingRight)
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.BigOmega -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.SprayThree)
-                        .statusEffect()
-                        .activation(150f)
-                        .attack(damage = 2, attackTexture = "p_cup", attackRate = 2.5f, projectileSpeed = 200f)
-                        .color(color)
-                        .health(3)
-                        .boundingBox(12f, 13f)
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.NaturalJoin -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth)
-                        .statusEffect()
-                        .activation(100f)
-                        .attack(damage = 2, attackTexture = "p_ltimes", projectileSpeed = 45f)
-                        .explode()
-                        .color(color)
-                        .health(4)
-                        .boundingBox(9f, 7f)
-                        .position(rect.x, rect.y)
-                        .velocity(speed = 30f)
-                        .texture(texture, textureStr)
-                        .direction(facingRight = facingRight)
-                        .knockback().gravity().remove().build()
-            }
-            EnemyType.BigPhi -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.ShootAndQuake)
-                        .statusEffect()
-                        .activation(200f)
-                        .attack(damage = 4, attackTexture = "p_alpha", attackRate = 1.5f, projectileSpeed = 60f)
-                        .explode()
-                        .color(color)
-                        .health(10)
-                        .boundingBox(14f, 16f)
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .jump(150f)
-                        .texture(texture, textureStr)
-                        .direction(facingRight = facingRight)
-                        .gravity().remove().build()
-            }
-            EnemyType.Percent -> {
-                val parent = EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth, visible = false)
-                        .statusEffect()
-                        .activation(120f)
-                        .attack(damage = 1)
-                        .color(color)
-                        .health(20)
-                        .boundingBox(10f, 10f)
-                        .position(rect.x, rect.y)
-                        .velocity(speed = 20f)
-                        .jump(120f)
-                        .texture(texture, textureStr)
-                        .direction(facingRight = facingRight)
-                        .gravity(gravity = -480f, terminalVelocity = -240f).knockback().remove().build()
+    private val percentOrbitAngles = floatArrayOf(MathUtils.PI2 / 5f, MathUtils.PI2 * 2f / 5f,
+            MathUtils.PI2 * 3 / 5f, MathUtils.PI2 * 4 / 5f, 0f)
+
+    fun createEnemy(engine: PooledEngine, type: EnemyType, rect: Rectangle, facingRight: Boolean) {
+        val template = Archetypes.enemy(type) ?: return
+        val builder = EntityBuilder.instance(engine)
+        val enemy = template.spawn(builder, rect.x, rect.y)
+        Mapper.DIR_MAPPER[enemy]?.facingRight = facingRight
+
+        // resolves the projectile template now instead of on the first shot
+        val attack = Mapper.ATTACK_MAPPER[enemy]
+        if (attack.attackTexture != null) {
+            Archetypes.enemyProjectile(type, attack, Mapper.ENEMY_MAPPER[enemy].attackType == EnemyAttackType.SprayThree)
+        }
 
-                val angles = listOf(MathUtils.PI2 / 5f, MathUtils.PI2 * 2f / 5f, MathUtils.PI2 * 3 / 5f, MathUtils.PI2 * 4 / 5f, 0f)
-                for (angle in angles) {
-                    EntityBuilder.instance(engine)
-                            .enemy(enemyType = type, movementType = EnemyMovementType.Orbit, parent = parent, visible = false)
-                            .activation(150f)
-                            .attack(damage = 1)
-                            .color(color)
-                            .health(1)
-                            .boundingBox(6f, 6f)
-                            .position(rect.x, rect.y)
-                            .velocity()
-                            .texture(res.getTexture("e_${type.typeStr}$ORBIT")!!, "e_${type.typeStr}$ORBIT")
-                            .orbit(angle = angle, speed = 2f, radius = 15f)
-                            .remove().build()
-                }
-            }
-            EnemyType.Nabla -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type)
-                        .activation(140f)
-                        .attack(damage = 4)
-                        .color(color)
-                        .health(1)
-                        .gravity(gravity = -1200f, terminalVelocity = -160f, collidable = false)
-                        .boundingBox(texture.regionWidth.toFloat() - 4, texture.regionHeight.toFloat())
-                        .position(rect.x, rect.y)
-                        .velocity()
-                        .texture(texture, textureStr)
-                        .remove().build()
-            }
-            EnemyType.CIntegral -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, attackType = EnemyAttackType.ArcTwo)
-                        .statusEffect()
-                        .activation(120f)
-                        .attack(damage = 4, attackTexture = "p_succ", attackRate = 2f,
-                                projectileSpeed = 80f, projectileAcceleration = 80f)
-                        .corporeal(incorporealTime = 2f)
-                        .color(color)
-                        .health(5)
-                        .boundingBox(8f, 16f)
-                        .position(rect.x, rect.y)
-                        .direction(facingRight)
-                        .velocity()
-                        .texture(texture, textureStr)
-                        .gravity().remove().build()
-            }
-            EnemyType.Because -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type, movementType = EnemyMovementType.BackAndForth)
-                        .statusEffect()
-                        .activation(120f)
-                        .attack(damage = 2, attackTexture = "p_because", projectileSpeed = 60f)
-                        .trap()
-                        .color(color)
-                        .health(100)
-                        .boundingBox(14f, 12f)
-                        .position(rect.x, rect.y)
-                        .direction(facingRight)
-                        .velocity(speed = 20f)
-                        .texture(texture, "e_because")
-                        .gravity().remove().build()
-            }
-            EnemyType.Block -> {
-                EntityBuilder.instance(engine)
-                        .enemy(enemyType = type)
-                        .statusEffect()
-                        .attack()
-                        .activation()
-                        .block()
-                        .color(color)
-                        .health(15)
-                        .boundingBox(8f, 8f)
-                        .position(rect.x, rect.y)
-                        .direction(facingRight)
-                        .velocity()
-                        .texture(texture, "e_block")
-                        .remove().build()
+        if (type == EnemyType.Percent) {
+            val orbitTemplate = Archetypes.enemy(EnemyType.PercentOrbit)!!
+            for (angle in percentOrbitAngles) {
+                val orbit = orbitTemplate.spawn(builder, rect.x, rect.y)
+                Mapper.ENEMY_MAPPER[orbit].parent = enemy
+                Mapper.ORBIT_MAPPER[orbit].angle = angle
             }
-            else -> {}
         }
     }
 
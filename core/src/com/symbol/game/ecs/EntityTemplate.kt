@@ -0,0 +1,29 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.gdx.utils.Array
+
+// a spawn with every texture, colour and data lookup already resolved. each spawn still runs the
+// builder lambda, so the components are pooled and set one by one, only the lookups are skipped
+class EntityTemplate(val width: Float = 0f, val height: Float = 0f,
+                     private val configure: EntityBuilder.() -> Unit) {
+
+    // for per spawn components that the template leaves out
+    fun begin(builder: EntityBuilder) : EntityBuilder = builder.apply(configure)
+
+    fun spawn(builder: EntityBuilder, x: Float, y: Float) : Entity = begin(builder).position(x, y).build()
+
+    fun spawn(builder: EntityBuilder, x: Float, y: Float, dx: Float, dy: Float, speed: Float) : Entity =
+            begin(builder).position(x, y).velocity(dx, dy, speed).build()
+
+    // positions are (x, y) pairs and velocities (dx, dy, speed) triples, one of each per entity
+    fun spawn(builder: EntityBuilder, count: Int, positions: FloatArray, velocities: FloatArray,
+              out: Array<Entity>? = null) {
+        for (i in 0 until count) {
+            val entity = spawn(builder, positions[i * 2], positions[i * 2 + 1],
+                    velocities[i * 3], velocities[i * 3 + 1], velocities[i * 3 + 2])
+            out?.add(entity)
+        }
+    }
+
+}
\ No newline at end of file
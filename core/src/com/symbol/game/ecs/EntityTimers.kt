@@ -0,0 +1,49 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+
+// a timer per entity kept in arrays indexed by the id EntityIds puts in entity.flags. register it with
+// the engine as a listener so an entity's timer is cleared when it comes and goes
+class EntityTimers : EntityListener {
+
+    private var times = FloatArray(64)
+    private var running = BooleanArray(64)
+
+    override fun entityAdded(entity: Entity) {
+        val id = entity.flags
+        if (id >= times.size) {
+            val capacity = maxOf(times.size * 2, id + 1)
+            times = times.copyOf(capacity)
+            running = running.copyOf(capacity)
+        }
+        stop(entity)
+    }
+
+    override fun entityRemoved(entity: Entity) = stop(entity)
+
+    fun isRunning(entity: Entity) : Boolean = running[entity.flags]
+
+    fun elapsed(entity: Entity) : Float = times[entity.flags]
+
+    // keeps the time elapsed so far
+    fun start(entity: Entity) {
+        running[entity.flags] = true
+    }
+
+    fun advance(entity: Entity, dt: Float) : Float {
+        times[entity.flags] += dt
+        return times[entity.flags]
+    }
+
+    fun stop(entity: Entity) {
+        times[entity.flags] = 0f
+        running[entity.flags] = false
+    }
+
+    fun clear() {
+        times.fill(0f)
+        running.fill(false)
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,65 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+import com.badlogic.ashley.signals.Listener
+import com.badlogic.ashley.signals.Signal
+
+// how often Ashley re-checks an entity against every family: once when it's added or removed,
+// and once for every component added to or removed from it while it's in the engine
+class FamilyUpdateCounter : EntityListener {
+
+    private var engine: Engine? = null
+    var count = 0
+        private set
+
+    private val componentListener = object : Listener<Entity> {
+        override fun receive(signal: Signal<Entity>, entity: Entity) {
+            count++
+        }
+    }
+
+    fun attach(engine: Engine) {
+        if (this.engine === engine) return
+        detach()
+        this.engine = engine
+        engine.addEntityListener(this)
+        for (entity in engine.entities) listen(entity)
+    }
+
+    fun detach() {
+        val engine = engine ?: return
+        engine.removeEntityListener(this)
+        for (entity in engine.entities) unlisten(entity)
+        this.engine = null
+    }
+
+    // the count since the last take
+    fun take() : Int {
+        val taken = count
+        count = 0
+        return taken
+    }
+
+    override fun entityAdded(entity: Entity) {
+        count++
+        listen(entity)
+    }
+
+    override fun entityRemoved(entity: Entity) {
+        count++
+        unlisten(entity)
+    }
+
+    private fun listen(entity: Entity) {
+        entity.componentAdded.add(componentListener)
+        entity.componentRemoved.add(componentListener)
+    }
+
+    private fun unlisten(entity: Entity) {
+        entity.componentAdded.remove(componentListener)
+        entity.componentRemoved.remove(componentListener)
+    }
+
+}
\ No newline at end of file
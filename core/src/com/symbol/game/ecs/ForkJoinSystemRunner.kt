@@ -0,0 +1,32 @@
+package com.symbol.game.ecs
+
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RecursiveAction
+
+// chunks are split in half until they're small enough, the calling thread waits for all of them.
+// only the desktop launcher uses this when Config.PARALLEL_RUNNER is on, otherwise it's SystemRunner.Sequential
+class ForkJoinSystemRunner(threads: Int) : SystemRunner {
+
+    private val pool = ForkJoinPool(threads)
+
+    override fun runChunks(size: Int, chunkSize: Int, chunk: SystemRunner.Chunk) {
+        pool.invoke(ChunkAction(chunk, 0, size, chunkSize))
+    }
+
+    private class ChunkAction(private val chunk: SystemRunner.Chunk,
+                              private val start: Int,
+                              private val end: Int,
+                              private val chunkSize: Int) : RecursiveAction() {
+
+        override fun compute() {
+            if (end - start <= chunkSize) {
+                chunk.process(start, end)
+                return
+            }
+            val mid = (start + end) ushr 1
+            invokeAll(ChunkAction(chunk, start, mid, chunkSize), ChunkAction(chunk, mid, end, chunkSize))
+        }
+
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.symbol.game.ecs
+
+interface GameListener {
+
+    fun onMapInverted(inverted: Boolean)
+
+    fun onPlayerDeath()
+
+}
\ No newline at end of file
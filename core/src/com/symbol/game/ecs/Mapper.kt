@@ -25,11 +25,12 @@ object Mapper {
     val KNOCKBACK_MAPPER = ComponentMapper.getFor(KnockbackComponent::class.java)!!
     val ORBIT_MAPPER = ComponentMapper.getFor(OrbitComponent::class.java)!!
     val STATUS_EFFECT_MAPPER = ComponentMapper.getFor(StatusEffectComponent::class.java)!!
-    val AFFECT_ALL_MAPPER = ComponentMapper.getFor(AffectAllComponent::class.java)!!
     val LAST_ENTITY_MAPPER = ComponentMapper.getFor(LastEntityComponent::class.java)!!
+    val FROZEN_MAPPER = ComponentMapper.getFor(FrozenComponent::class.java)!!
 
     val ENEMY_MAPPER = ComponentMapper.getFor(EnemyComponent::class.java)!!
     val ACTIVATION_MAPPER = ComponentMapper.getFor(ActivationComponent::class.java)!!
+    val DORMANT_MAPPER = ComponentMapper.getFor(DormantComponent::class.java)!!
     val CORPOREAL_MAPPER = ComponentMapper.getFor(CorporealComponent::class.java)!!
     val ATTACK_MAPPER = ComponentMapper.getFor(AttackComponent::class.java)!!
     val EXPLODE_MAPPER = ComponentMapper.getFor(ExplodeComponent::class.java)!!
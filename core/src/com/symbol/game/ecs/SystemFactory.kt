@@ -0,0 +1,55 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.PooledEngine
+import com.symbol.game.ecs.entity.Player
+import com.symbol.game.ecs.system.*
+import com.symbol.game.ecs.system.enemy.EnemyActivationSystem
+import com.symbol.game.ecs.system.enemy.EnemyAttackSystem
+import com.symbol.game.ecs.system.enemy.EnemyMovementSystem
+import com.symbol.game.map.MapManager
+import com.symbol.game.map.TILE_SIZE
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+
+object SystemFactory {
+
+    // every gameplay system that doesn't draw, in update order. each one conflicts with its neighbour over
+    // some component, so they can't run side by side. the runner only splits up the chunked loops
+    fun addWorldSystems(engine: PooledEngine, player: Player, res: Resources, data: Data, listener: GameListener,
+                        runner: SystemRunner = SystemRunner.Sequential) {
+        with (engine) {
+            addSystem(EntityIds())
+            addSystem(RegionSystem(player))
+            addSystem(MovementSystem())
+            addSystem(MapCollisionSystem())
+            addSystem(MapEntitySystem(player, res))
+            addSystem(SpatialHashSystem())
+            addSystem(ProjectileSystem(player, res, data, listener))
+            addSystem(HealthSystem())
+            addSystem(EnemyActivationSystem(player))
+            addSystem(EnemyAttackSystem(player))
+            addSystem(EnemyMovementSystem(player, res))
+            addSystem(DirectionSystem())
+            addSystem(GravitySystem())
+            addSystem(StatusEffectSystem())
+            addSystem(ProjectileOrientationSystem(res))
+
+            for (system in systems) {
+                if (system is ChunkedSystem) system.runner = runner
+            }
+        }
+    }
+
+    fun setMapData(engine: PooledEngine, mapManager: MapManager) {
+        val mapWidth = mapManager.mapWidth * TILE_SIZE
+        val mapHeight = mapManager.mapHeight * TILE_SIZE
+        with (engine) {
+            getSystem(RegionSystem::class.java).setMapData(mapWidth, mapHeight)
+            getSystem(MapCollisionSystem::class.java).setMapData(mapManager.mapObjects, mapWidth, mapHeight)
+            getSystem(SpatialHashSystem::class.java).setMapData(mapWidth, mapHeight)
+            getSystem(ProjectileSystem::class.java).setMapData(mapManager.mapObjects, mapWidth, mapHeight)
+            getSystem(EnemyAttackSystem::class.java).setMapData(mapWidth.toFloat())
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.symbol.game.ecs
+
+// runs the chunks of a per-entity loop and returns once all of them are done
+interface SystemRunner {
+
+    interface Chunk {
+        fun process(start: Int, end: Int)
+    }
+
+    // splits [0, size) into ranges of at most chunkSize
+    fun runChunks(size: Int, chunkSize: Int, chunk: Chunk)
+
+    // one after another on the calling thread, the only option on the html target
+    object Sequential : SystemRunner {
+        override fun runChunks(size: Int, chunkSize: Int, chunk: Chunk) {
+            chunk.process(0, size)
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.symbol.game.ecs
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.EntitySystem
+
+// same as engine.update, but systems run one at a time so each can be measured on its own.
+// the engine still flushes pending entity operations after every system like a normal update
+class SystemStepper {
+
+    interface Listener {
+        fun beforeSystem(system: EntitySystem)
+        fun afterSystem(system: EntitySystem)
+    }
+
+    private var processing = BooleanArray(0)
+
+    fun update(engine: Engine, dt: Float, listener: Listener) {
+        val systems = engine.systems
+        if (processing.size < systems.size()) processing = BooleanArray(systems.size())
+        for (i in 0 until systems.size()) {
+            processing[i] = systems[i].checkProcessing()
+            systems[i].setProcessing(false)
+        }
+
+        try {
+            for (i in 0 until systems.size()) {
+                if (!processing[i]) continue
+                val system = systems[i]
+                system.setProcessing(true)
+                listener.beforeSystem(system)
+                engine.update(dt)
+                listener.afterSystem(system)
+                system.setProcessing(false)
+            }
+        } finally {
+            for (i in 0 until systems.size()) systems[i].setProcessing(processing[i])
+        }
+    }
+
+}
\ No newline at end of file
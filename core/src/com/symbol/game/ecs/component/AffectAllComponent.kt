@@ -1,8 +0,0 @@
-package com.symbol.game.ecs.component
-
-import com.badlogic.ashley.core.Component
-import com.badlogic.gdx.utils.Pool
-
-class AffectAllComponent : Component, Pool.Poolable {
-    override fun reset() {}
-}
\ No newline at end of file
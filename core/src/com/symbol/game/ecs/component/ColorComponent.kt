@@ -5,10 +5,10 @@ import com.badlogic.gdx.utils.Pool
 
 class ColorComponent : Component, Pool.Poolable {
 
-    var hex: String? = null
+    var packed = 0f
 
     override fun reset() {
-        hex = null
+        packed = 0f
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.symbol.game.ecs.component
+
+import com.badlogic.ashley.core.Component
+import com.badlogic.gdx.utils.Pool
+
+// outside the simulated region, left out of every system until its chunk comes back into range
+class FrozenComponent : Component, Pool.Poolable {
+
+    var chunk = -1
+
+    override fun reset() {
+        chunk = -1
+    }
+}
\ No newline at end of file
@@ -14,6 +14,13 @@ class PositionComponent : Component, Pool.Poolable {
     var prevX = 0f
     var prevY = 0f
 
+    // where the entity was at the start of the current fixed step and where it's drawn between steps
+    var lastX = 0f
+    var lastY = 0f
+    var renderX = 0f
+    var renderY = 0f
+    private var hasLast = false
+
     fun set(x: Float, y: Float) {
         this.x = x
         this.y = y
@@ -24,6 +31,24 @@ class PositionComponent : Component, Pool.Poolable {
         this.prevY = prevY
     }
 
+    fun snapshot() {
+        lastX = x
+        lastY = y
+        hasLast = true
+    }
+
+    // jumps without being drawn sliding across the distance
+    fun teleport(x: Float, y: Float) {
+        set(x, y)
+        snapshot()
+    }
+
+    fun interpolate(alpha: Float) {
+        if (!hasLast) snapshot()
+        renderX = lastX + (x - lastX) * alpha
+        renderY = lastY + (y - lastY) * alpha
+    }
+
     override fun reset() {
         x = 0f
         y = 0f
@@ -31,5 +56,10 @@ class PositionComponent : Component, Pool.Poolable {
         originY = 0f
         prevX = 0f
         prevY = 0f
+        lastX = 0f
+        lastY = 0f
+        renderX = 0f
+        renderY = 0f
+        hasLast = false
     }
 }
\ No newline at end of file
@@ -28,6 +28,10 @@ class ProjectileComponent : Component, Pool.Poolable {
     var waveTimer = 0f
 
     var withinMirror = false
+    // mirrored projectiles hit the player and enemies alike
+    var affectAll = false
+
+    var orientation = ProjectileOrientation.None
 
     override fun reset() {
         lifeTime = 0f
@@ -48,6 +52,9 @@ class ProjectileComponent : Component, Pool.Poolable {
         waveTimer = 0f
 
         withinMirror = false
+        affectAll = false
+
+        orientation = ProjectileOrientation.None
     }
 }
 
@@ -59,4 +66,13 @@ enum class ProjectileMovementType {
     Boomerang,
     Homing
 
+}
+
+enum class ProjectileOrientation {
+
+    None,
+    Horizontal,
+    Vertical,
+    Diagonal
+
 }
\ No newline at end of file
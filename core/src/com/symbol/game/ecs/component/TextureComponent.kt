@@ -3,14 +3,21 @@ package com.symbol.game.ecs.component
 import com.badlogic.ashley.core.Component
 import com.badlogic.gdx.graphics.g2d.TextureRegion
 import com.badlogic.gdx.utils.Pool
+import com.symbol.game.util.Resources
+import com.symbol.game.util.TextureVariants
 
 class TextureComponent : Component, Pool.Poolable {
 
     var texture: TextureRegion? = null
     var textureStr: String? = null
+    private var variants: TextureVariants? = null
+
+    fun variants(res: Resources) : TextureVariants =
+            variants ?: res.getVariants(textureStr!!).also { variants = it }
 
     override fun reset() {
         texture = null
         textureStr = null
+        variants = null
     }
 }
\ No newline at end of file
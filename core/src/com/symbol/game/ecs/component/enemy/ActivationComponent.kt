@@ -6,11 +6,9 @@ import com.badlogic.gdx.utils.Pool
 class ActivationComponent : Component, Pool.Poolable {
 
     var activationRange = -1f
-    var active = false
 
     override fun reset() {
         activationRange = -1f
-        active = false
     }
 
 }
\ No newline at end of file
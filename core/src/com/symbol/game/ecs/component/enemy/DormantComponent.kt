@@ -0,0 +1,10 @@
+package com.symbol.game.ecs.component.enemy
+
+import com.badlogic.ashley.core.Component
+import com.badlogic.gdx.utils.Pool
+
+// enemies with an activation range wait with this until the player comes within it,
+// dormant enemies are left out of the attack and movement systems
+class DormantComponent : Component, Pool.Poolable {
+    override fun reset() {}
+}
\ No newline at end of file
@@ -22,6 +22,7 @@ class Player(private val res: Resources, private val data: Data) : Entity() {
     private val statusEffect = StatusEffectComponent()
     private val direction = DirectionComponent()
     private val remove = RemoveComponent()
+    private val lastEntity = LastEntityComponent()
 
     init {
         add(player)
@@ -37,6 +38,7 @@ class Player(private val res: Resources, private val data: Data) : Entity() {
         add(statusEffect)
         add(direction)
         add(remove)
+        add(lastEntity)
     }
 
     fun reset() {
@@ -53,9 +55,10 @@ class Player(private val res: Resources, private val data: Data) : Entity() {
         statusEffect.reset()
         direction.reset()
         remove.reset()
+        lastEntity.reset()
 
         with (data) {
-            color.hex = getColor("player")
+            color.packed = getPackedColor("player")
             bounds.rect.setSize(getPlayerData("boundsWidth").asFloat(),
                     getPlayerData("boundsHeight").asFloat())
             texture.texture = res.getTexture("player")
@@ -0,0 +1,40 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.gdx.utils.IntArray
+
+enum class CollisionType {
+    Terrain,
+    Projectile,
+    Health
+}
+
+private val TYPES = CollisionType.values()
+
+// what a detection pass found, kept as (type, source, target) int triples so a frame full of hits allocates nothing.
+// source and target are indices into whatever arrays the detection pass read, target is -1 for terrain
+class CollisionEvents {
+
+    private val events = IntArray()
+    private val counts = kotlin.IntArray(TYPES.size)
+
+    val size: Int get() = events.size / 3
+
+    fun add(type: CollisionType, source: Int, target: Int = -1) {
+        events.add(type.ordinal, source, target)
+        counts[type.ordinal]++
+    }
+
+    fun type(i: Int) : CollisionType = TYPES[events[i * 3]]
+
+    fun source(i: Int) : Int = events[i * 3 + 1]
+
+    fun target(i: Int) : Int = events[i * 3 + 2]
+
+    fun count(type: CollisionType) : Int = counts[type.ordinal]
+
+    fun clear() {
+        events.clear()
+        counts.fill(0)
+    }
+
+}
\ No newline at end of file
@@ -5,8 +5,9 @@ import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.systems.IteratingSystem
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.component.DirectionComponent
+import com.symbol.game.ecs.component.FrozenComponent
 
-class DirectionSystem : IteratingSystem(Family.all(DirectionComponent::class.java).get()) {
+class DirectionSystem : IteratingSystem(Family.all(DirectionComponent::class.java).exclude(FrozenComponent::class.java).get()) {
 
     override fun processEntity(entity: Entity?, deltaTime: Float) {
         val vel = Mapper.VEL_MAPPER[entity]
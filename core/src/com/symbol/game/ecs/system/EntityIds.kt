@@ -0,0 +1,43 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.gdx.utils.IntArray
+
+// gives every entity in the engine a small id in entity.flags, which Ashley leaves to the game. ids of
+// removed entities are handed out again, so per-entity state can live in plain arrays indexed by id
+class EntityIds : EntitySystem() {
+
+    // one past the highest id handed out so far
+    var capacity = 0
+        private set
+    private val free = IntArray()
+
+    private val listener = object : EntityListener {
+        override fun entityAdded(entity: Entity) {
+            entity.flags = if (free.size > 0) free.pop() else capacity++
+        }
+        override fun entityRemoved(entity: Entity) {
+            free.add(entity.flags)
+        }
+    }
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        // ahead of every other listener so ids are assigned before anyone reads them
+        engine!!.addEntityListener(Int.MIN_VALUE, listener)
+        for (entity in engine.entities) listener.entityAdded(entity)
+    }
+
+    override fun removedFromEngine(engine: Engine?) {
+        super.removedFromEngine(engine)
+        engine!!.removeEntityListener(listener)
+        capacity = 0
+        free.clear()
+    }
+
+    override fun checkProcessing() : Boolean = false
+
+}
\ No newline at end of file
@@ -2,14 +2,15 @@ package com.symbol.game.ecs.system
 
 import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
-import com.badlogic.ashley.systems.IteratingSystem
+import com.symbol.game.ecs.ChunkedIteratingSystem
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.GravityComponent
 
 const val GRAVITY = -750.8f
 const val TERMINAL_VELOCITY = -80.8f
 
-class GravitySystem : IteratingSystem(Family.all(GravityComponent::class.java).get()) {
+class GravitySystem : ChunkedIteratingSystem(Family.all(GravityComponent::class.java).exclude(FrozenComponent::class.java).get()) {
 
     override fun processEntity(entity: Entity?, dt: Float) {
         val vel = Mapper.VEL_MAPPER[entity]
@@ -4,10 +4,11 @@ import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.systems.IteratingSystem
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.HealthComponent
 import com.symbol.game.ecs.entity.Player
 
-class HealthSystem : IteratingSystem(Family.all(HealthComponent::class.java).get()) {
+class HealthSystem : IteratingSystem(Family.all(HealthComponent::class.java).exclude(FrozenComponent::class.java).get()) {
 
     override fun processEntity(entity: Entity?, deltaTime: Float) {
         Mapper.HEALTH_MAPPER[entity].run {
@@ -0,0 +1,28 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.systems.IteratingSystem
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
+import com.symbol.game.ecs.component.PositionComponent
+
+// updated by the screen once per drawn frame rather than once per fixed step
+class InterpolationSystem : IteratingSystem(Family.all(PositionComponent::class.java).exclude(FrozenComponent::class.java).get()) {
+
+    // how far the accumulator is into the next fixed step
+    var alpha = 1f
+
+    init {
+        setProcessing(false)
+    }
+
+    fun snapshot() {
+        for (entity in entities) Mapper.POS_MAPPER[entity].snapshot()
+    }
+
+    override fun processEntity(entity: Entity?, dt: Float) {
+        Mapper.POS_MAPPER[entity].interpolate(alpha)
+    }
+
+}
\ No newline at end of file
@@ -5,8 +5,14 @@ import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.ashley.utils.ImmutableArray
+import com.badlogic.gdx.math.Rectangle
 import com.badlogic.gdx.utils.Array
+import com.badlogic.gdx.utils.IntArray
+import com.symbol.game.Config
+import com.symbol.game.ecs.ChunkedSystem
+import com.symbol.game.ecs.EntityTimers
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.SystemRunner
 import com.symbol.game.ecs.component.*
 import com.symbol.game.ecs.component.enemy.BlockComponent
 import com.symbol.game.ecs.component.map.MapEntityComponent
@@ -18,18 +24,26 @@ import com.symbol.game.effects.particle.DEFAULT_LIFETIME
 import com.symbol.game.effects.particle.ParticleSpawner
 import com.symbol.game.map.MapObject
 import com.symbol.game.map.MapObjectType
-import com.symbol.game.util.Resources
+import com.symbol.game.map.SpatialGrid
 import kotlin.math.abs
 
 private const val NUM_SUB_STEPS = 30
+private const val NO_HIT = NUM_SUB_STEPS + 1
 private const val MAP_OBJECT_DAMAGE_RATE = 1f
 private const val MAP_OBJECT_SLOW_PERCENTAGE = 0.4f
 private const val MAP_OBJECT_SPEED_BOOST = 45f
 const val MAP_OBJECT_JUMP_BOOST_PERCENTAGE = 1.5f
 
-class MapCollisionSystem(private val res: Resources) : IteratingSystem(
-        Family.all(BoundingBoxComponent::class.java, GravityComponent::class.java).get()
-) {
+class MapCollisionSystem : IteratingSystem(
+        Family.all(BoundingBoxComponent::class.java, GravityComponent::class.java).exclude(FrozenComponent::class.java).get()
+), ChunkedSystem {
+
+    var collisionMode = CollisionMode.Swept
+
+    // only the off map check is split up, the collision loop shares the sweep state
+    override var runner: SystemRunner = SystemRunner.Sequential
+    override var threshold = Config.PARALLEL_THRESHOLD
+    override var chunkSize = Config.PARALLEL_CHUNK
 
     private var mapObjects: Array<MapObject> = Array()
     private var mapWidth = 0
@@ -37,36 +51,66 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
 
     private var stepX = 0f
     private var stepY = 0f
+    private val sweptRect = Rectangle()
+    private val sweepPositions = FloatArray(NUM_SUB_STEPS + 1)
 
     private lateinit var removableEntities: ImmutableArray<Entity>
     private lateinit var movingPlatforms: ImmutableArray<Entity>
     private lateinit var collidableEntities: ImmutableArray<Entity>
     private lateinit var toggleTiles: ImmutableArray<Entity>
 
-    private var damageTimes: MutableMap<Entity, Float> = HashMap()
-    private var startDamage: MutableMap<Entity, Boolean> = HashMap()
+    private val mapObjectGrid = SpatialGrid()
+    private val collidableGrid = SpatialGrid()
+    private val platformGrid = SpatialGrid()
+    private val toggleTileGrid = SpatialGrid()
+
+    private val mapObjectCandidates = IntArray()
+    private val collidableCandidates = IntArray()
+    private val platformCandidates = IntArray()
+    private val toggleTileCandidates = IntArray()
+
+    // runs from the moment a damage tile hits an entity until it may hit it again
+    private val damageTimers = EntityTimers()
+
+    private val offMapCheck = object : SystemRunner.Chunk {
+        override fun process(start: Int, end: Int) {
+            for (i in start until end) {
+                val entity = removableEntities[i]
+                val position = Mapper.POS_MAPPER[entity]
+                val width = Mapper.TEXTURE_MAPPER[entity].texture!!.regionWidth
+                val height = Mapper.TEXTURE_MAPPER[entity].texture!!.regionHeight
+                val remove = Mapper.REMOVE_MAPPER[entity]
+                if (position.x < -mapWidth - width || position.x > mapWidth * 2 ||
+                        position.y < -mapHeight - height || position.y > mapHeight * 2) {
+                    remove.shouldRemove = true
+                }
+            }
+        }
+    }
 
     override fun addedToEngine(engine: Engine?) {
         super.addedToEngine(engine)
-        removableEntities = engine!!.getEntitiesFor(Family.all(RemoveComponent::class.java).get())
+        removableEntities = engine!!.getEntitiesFor(Family.all(RemoveComponent::class.java).exclude(FrozenComponent::class.java).get())
         movingPlatforms = engine.getEntitiesFor(Family.all(MovingPlatformComponent::class.java).get())
         collidableEntities = engine.getEntitiesFor(Family.one(MapEntityComponent::class.java, BlockComponent::class.java)
                 .exclude(MovingPlatformComponent::class.java).get())
         toggleTiles = engine.getEntitiesFor(Family.all(ToggleTileComponent::class.java).get())
+        // not the system's family, a frozen entity keeps its cooldown until it thaws
+        val damageable = Family.all(BoundingBoxComponent::class.java, GravityComponent::class.java).get()
+        engine.addEntityListener(damageable, damageTimers)
+        for (entity in engine.getEntitiesFor(damageable)) damageTimers.entityAdded(entity)
+    }
+
+    override fun removedFromEngine(engine: Engine?) {
+        super.removedFromEngine(engine)
+        engine!!.removeEntityListener(damageTimers)
     }
 
     override fun update(dt: Float) {
+        syncEntityGrids()
         super.update(dt)
-        for (entity in removableEntities) {
-            val position = Mapper.POS_MAPPER[entity]
-            val width = Mapper.TEXTURE_MAPPER[entity].texture!!.regionWidth
-            val height = Mapper.TEXTURE_MAPPER[entity].texture!!.regionHeight
-            val remove = Mapper.REMOVE_MAPPER[entity]
-            if (position.x < -mapWidth - width || position.x > mapWidth * 2 ||
-                    position.y < -mapHeight - height || position.y > mapHeight * 2) {
-                remove.shouldRemove = true
-            }
-        }
+        if (removableEntities.size() < threshold) offMapCheck.process(0, removableEntities.size())
+        else runner.runChunks(removableEntities.size(), chunkSize, offMapCheck)
     }
 
     override fun processEntity(entity: Entity?, dt: Float) {
@@ -79,111 +123,19 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
         val player = Mapper.PLAYER_MAPPER[entity]
 
         stepX = (if (gravity.onMovingPlatform) velocity.platformDx else velocity.dx) * dt / NUM_SUB_STEPS
-        for (i in 0 until NUM_SUB_STEPS) {
-            savePreviousPosition(position)
-            position.x += stepX
-            bb.rect.setPosition(position.x + (width - bb.rect.width) / 2, position.y + (height - bb.rect.height) / 2)
-
-            if (gravity.collidable) {
-                for (mapObject in mapObjects) {
-                    if (mapObject.type.solid && bb.rect.overlaps(mapObject.bounds)) {
-                        revertCurrentPosition(position)
-                    }
-                }
-                for (cEntity in collidableEntities) {
-                    val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity]
-                    val mapEntityComp = Mapper.MAP_ENTITY_MAPPER[cEntity]
-
-                    if (bb.rect.overlaps(bounds.rect)) {
-                        if ((mapEntityComp != null && mapEntityComp.mapCollidable) ||
-                                Mapper.BLOCK_MAPPER[cEntity] != null) {
-                            revertCurrentPosition(position)
-                        }
-                    }
-                }
-                for (mplatform in movingPlatforms) {
-                    val bounds = Mapper.BOUNDING_BOX_MAPPER[mplatform]
-                    val vel = Mapper.VEL_MAPPER[mplatform]
-                    if (bb.rect.overlaps(bounds.rect)) {
-                        val collisionLeft = (velocity.dx >= 0 && vel.dx < 0) || (velocity.dx > 0 && vel.dx > 0)
-                        val collisionRight = (velocity.dx <= 0 && vel.dx > 0) || (velocity.dx < 0 && vel.dx < 0)
-
-                        if (bb.rect.x < bounds.rect.x && collisionLeft)
-                            position.x = bounds.rect.x - bb.rect.width - 1
-                        else if (bb.rect.x + bb.rect.width > bounds.rect.x + bounds.rect.width && collisionRight)
-                            position.x = bounds.rect.x + bounds.rect.width + 1
-                    }
-                }
-            }
+        if (collisionMode == CollisionMode.Swept) {
+            sweepX(bb, position, velocity, gravity, width, height)
+        }
+        else {
+            for (i in 0 until NUM_SUB_STEPS) subStepX(bb, position, velocity, gravity, width, height)
         }
 
         stepY = velocity.dy * dt / NUM_SUB_STEPS
-        for (i in 0 until NUM_SUB_STEPS) {
-            savePreviousPosition(position)
-            position.y += stepY
-            bb.rect.setPosition(position.x + (width - bb.rect.width) / 2, position.y + (height - bb.rect.height) / 2)
-
-            if (gravity.collidable) {
-                for (mapObject in mapObjects) {
-                    if (mapObject.type.solid && bb.rect.overlaps(mapObject.bounds)) {
-                        revertCurrentPosition(position)
-                        if (velocity.dy < 0 || (gravity.reverse && velocity.dy > 0 )) {
-                            gravity.onGround = true
-                            gravity.platform.set(mapObject.bounds)
-
-                            val se = Mapper.STATUS_EFFECT_MAPPER[entity]
-                            if (se != null && !se.entityApplied && se.type != StatusEffect.None) se.finish()
-
-                            handleGroundedMapObject(mapObject, player, se)
-                            handleSlowMapObject(mapObject, velocity, se)
-                            handlePushRightMapObject(mapObject, velocity, se)
-                            handlePushLeftMapObject(mapObject, velocity, se)
-                            handleJumpBoostMapObject(mapObject, player, se)
-                        }
-                        velocity.dy = 0f
-                    }
-                }
-                for (cEntity in collidableEntities) {
-                    val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity]
-                    val mapEntityComp = Mapper.MAP_ENTITY_MAPPER[cEntity]
-
-                    if (bb.rect.overlaps(bounds.rect)) {
-                        if ((mapEntityComp != null && mapEntityComp.mapCollidable) ||
-                                Mapper.BLOCK_MAPPER[cEntity] != null) {
-                            revertCurrentPosition(position)
-                            if (velocity.dy < 0 || (gravity.reverse && velocity.dy > 0 )) {
-                                gravity.onGround = true
-                                gravity.platform.set(bounds.rect)
-                                player?.canJump = true
-                            }
-                            velocity.dy = 0f
-                        }
-                    }
-                }
-                for (mplatform in movingPlatforms) {
-                    val bounds = Mapper.BOUNDING_BOX_MAPPER[mplatform]
-                    if (bb.rect.overlaps(bounds.rect)) {
-                        revertCurrentPosition(position)
-                        if ((velocity.dy < 0 || (gravity.reverse && velocity.dy > 0)) &&
-                                bb.rect.x + bb.rect.width > bounds.rect.x &&
-                                bb.rect.x < bounds.rect.x + bounds.rect.width) {
-                            gravity.onGround = true
-                            gravity.onMovingPlatform = true
-                            gravity.platform.set(bounds.rect)
-                            player?.canJump = true
-                        }
-                        velocity.dy = 0f
-
-                        val vel = Mapper.VEL_MAPPER[mplatform]
-                        if (gravity.onMovingPlatform) {
-                            if ((velocity.dx < 0 && vel.dx > 0) || (velocity.dx > 0 && vel.dx < 0))
-                                velocity.platformDx = velocity.dx / 2 - vel.dx
-                            else
-                                velocity.platformDx = if (velocity.dx != 0f) vel.dx + velocity.dx / 2 else vel.dx + velocity.dx
-                        }
-                    }
-                }
-            }
+        if (collisionMode == CollisionMode.Swept) {
+            sweepY(entity, bb, position, velocity, gravity, player, width, height)
+        }
+        else {
+            for (i in 0 until NUM_SUB_STEPS) subStepY(entity, bb, position, velocity, gravity, player, width, height)
         }
         if (velocity.dy != 0f) {
             gravity.onGround = false
@@ -193,7 +145,9 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
 
         if (Mapper.PROJ_MAPPER[entity] != null) return
 
-        for (mapObject in mapObjects) {
+        mapObjectGrid.query(bb.rect, mapObjectCandidates)
+        for (j in 0 until mapObjectCandidates.size) {
+            val mapObject = mapObjects[mapObjectCandidates[j]]
             if (bb.rect.overlaps(mapObject.bounds)) {
                 when (mapObject.type) {
                     MapObjectType.Lethal -> handleLethalMapObject(entity)
@@ -203,19 +157,16 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
             }
         }
 
-        for (toggleTile in toggleTiles) {
-            val tt = Mapper.TOGGLE_TILE_MAPPER[toggleTile]
+        toggleTileGrid.query(bb.rect, toggleTileCandidates)
+        for (j in 0 until toggleTileCandidates.size) {
+            val tt = Mapper.TOGGLE_TILE_MAPPER[toggleTiles[toggleTileCandidates[j]]]
             if (bb.rect.overlaps(tt.lethalRect) && tt.toggle) {
                 killEntity(entity)
             }
         }
 
-        if (startDamage[entity]!!) {
-            damageTimes[entity!!] = damageTimes[entity]?.plus(dt)!!
-            if (damageTimes[entity]!! >= MAP_OBJECT_DAMAGE_RATE) {
-                damageTimes[entity] = 0f
-                startDamage[entity] = false
-            }
+        if (damageTimers.isRunning(entity!!)) {
+            if (damageTimers.advance(entity, dt) >= MAP_OBJECT_DAMAGE_RATE) damageTimers.stop(entity)
         }
     }
 
@@ -225,12 +176,291 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
         this.mapWidth = mapWidth
         this.mapHeight = mapHeight
 
-        damageTimes.clear()
-        startDamage.clear()
-        for (entity in entities) {
-            damageTimes[entity] = 0f
-            startDamage[entity] = false
+        mapObjectGrid.resize(mapWidth, mapHeight)
+        collidableGrid.resize(mapWidth, mapHeight)
+        platformGrid.resize(mapWidth, mapHeight)
+        toggleTileGrid.resize(mapWidth, mapHeight)
+        this.mapObjects.forEachIndexed { i, mapObject -> mapObjectGrid.insert(i, mapObject.bounds) }
+        syncEntityGrids()
+
+        damageTimers.clear()
+    }
+
+    private fun subStepX(bb: BoundingBoxComponent, position: PositionComponent, velocity: VelocityComponent,
+                         gravity: GravityComponent, width: Int, height: Int) {
+        savePreviousPosition(position)
+        position.x += stepX
+        bb.rect.setPosition(position.x + (width - bb.rect.width) / 2, position.y + (height - bb.rect.height) / 2)
+
+        if (gravity.collidable) {
+            queryCandidates(bb.rect)
+            for (j in 0 until mapObjectCandidates.size) {
+                val mapObject = mapObjects[mapObjectCandidates[j]]
+                if (mapObject.type.solid && bb.rect.overlaps(mapObject.bounds)) {
+                    revertCurrentPosition(position)
+                }
+            }
+            for (j in 0 until collidableCandidates.size) {
+                val cEntity = collidableEntities[collidableCandidates[j]]
+                val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity]
+                val mapEntityComp = Mapper.MAP_ENTITY_MAPPER[cEntity]
+
+                if (bb.rect.overlaps(bounds.rect)) {
+                    if ((mapEntityComp != null && mapEntityComp.mapCollidable) ||
+                            Mapper.BLOCK_MAPPER[cEntity] != null) {
+                        revertCurrentPosition(position)
+                    }
+                }
+            }
+            for (j in 0 until platformCandidates.size) {
+                val mplatform = movingPlatforms[platformCandidates[j]]
+                val bounds = Mapper.BOUNDING_BOX_MAPPER[mplatform]
+                val vel = Mapper.VEL_MAPPER[mplatform]
+                if (bb.rect.overlaps(bounds.rect)) {
+                    val collisionLeft = (velocity.dx >= 0 && vel.dx < 0) || (velocity.dx > 0 && vel.dx > 0)
+                    val collisionRight = (velocity.dx <= 0 && vel.dx > 0) || (velocity.dx < 0 && vel.dx < 0)
+
+                    if (bb.rect.x < bounds.rect.x && collisionLeft)
+                        position.x = bounds.rect.x - bb.rect.width - 1
+                    else if (bb.rect.x + bb.rect.width > bounds.rect.x + bounds.rect.width && collisionRight)
+                        position.x = bounds.rect.x + bounds.rect.width + 1
+                }
+            }
+        }
+    }
+
+    private fun subStepY(entity: Entity?, bb: BoundingBoxComponent, position: PositionComponent,
+                         velocity: VelocityComponent, gravity: GravityComponent, player: PlayerComponent?,
+                         width: Int, height: Int) {
+        savePreviousPosition(position)
+        position.y += stepY
+        bb.rect.setPosition(position.x + (width - bb.rect.width) / 2, position.y + (height - bb.rect.height) / 2)
+
+        if (gravity.collidable) {
+            queryCandidates(bb.rect)
+            for (j in 0 until mapObjectCandidates.size) {
+                val mapObject = mapObjects[mapObjectCandidates[j]]
+                if (mapObject.type.solid && bb.rect.overlaps(mapObject.bounds)) {
+                    revertCurrentPosition(position)
+                    if (velocity.dy < 0 || (gravity.reverse && velocity.dy > 0 )) {
+                        gravity.onGround = true
+                        gravity.platform.set(mapObject.bounds)
+
+                        val se = Mapper.STATUS_EFFECT_MAPPER[entity]
+                        if (se != null && !se.entityApplied && se.type != StatusEffect.None) se.finish()
+
+                        handleGroundedMapObject(mapObject, player, se)
+                        handleSlowMapObject(mapObject, velocity, se)
+                        handlePushRightMapObject(mapObject, velocity, se)
+                        handlePushLeftMapObject(mapObject, velocity, se)
+                        handleJumpBoostMapObject(mapObject, player, se)
+                    }
+                    velocity.dy = 0f
+                }
+            }
+            for (j in 0 until collidableCandidates.size) {
+                val cEntity = collidableEntities[collidableCandidates[j]]
+                val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity]
+                val mapEntityComp = Mapper.MAP_ENTITY_MAPPER[cEntity]
+
+                if (bb.rect.overlaps(bounds.rect)) {
+                    if ((mapEntityComp != null && mapEntityComp.mapCollidable) ||
+                            Mapper.BLOCK_MAPPER[cEntity] != null) {
+                        revertCurrentPosition(position)
+                        if (velocity.dy < 0 || (gravity.reverse && velocity.dy > 0 )) {
+                            gravity.onGround = true
+                            gravity.platform.set(bounds.rect)
+                            player?.canJump = true
+                        }
+                        velocity.dy = 0f
+                    }
+                }
+            }
+            for (j in 0 until platformCandidates.size) {
+                val mplatform = movingPlatforms[platformCandidates[j]]
+                val bounds = Mapper.BOUNDING_BOX_MAPPER[mplatform]
+                if (bb.rect.overlaps(bounds.rect)) {
+                    revertCurrentPosition(position)
+                    if ((velocity.dy < 0 || (gravity.reverse && velocity.dy > 0)) &&
+                            bb.rect.x + bb.rect.width > bounds.rect.x &&
+                            bb.rect.x < bounds.rect.x + bounds.rect.width) {
+                        gravity.onGround = true
+                        gravity.onMovingPlatform = true
+                        gravity.platform.set(bounds.rect)
+                        player?.canJump = true
+                    }
+                    velocity.dy = 0f
+
+                    val vel = Mapper.VEL_MAPPER[mplatform]
+                    if (gravity.onMovingPlatform) {
+                        if ((velocity.dx < 0 && vel.dx > 0) || (velocity.dx > 0 && vel.dx < 0))
+                            velocity.platformDx = velocity.dx / 2 - vel.dx
+                        else
+                            velocity.platformDx = if (velocity.dx != 0f) vel.dx + velocity.dx / 2 else vel.dx + velocity.dx
+                    }
+                }
+            }
+        }
+    }
+
+    private fun sweepX(bb: BoundingBoxComponent, position: PositionComponent, velocity: VelocityComponent,
+                       gravity: GravityComponent, width: Int, height: Int) {
+        val offsetX = (width - bb.rect.width) / 2
+        val ry = position.y + (height - bb.rect.height) / 2
+        fillSweepPositions(position.x, stepX)
+
+        if (!gravity.collidable) {
+            position.x = sweepPositions[NUM_SUB_STEPS]
+            bb.rect.setPosition(position.x + offsetX, ry)
+            return
+        }
+
+        setSweptRect(sweepPositions[1] + offsetX, ry, sweepPositions[NUM_SUB_STEPS] + offsetX, ry,
+                bb.rect.width, bb.rect.height)
+        queryCandidates(sweptRect)
+
+        // moving platforms push the entity sideways mid-sweep, which only the sub-step path models
+        for (j in 0 until platformCandidates.size) {
+            if (sweptRect.overlaps(Mapper.BOUNDING_BOX_MAPPER[movingPlatforms[platformCandidates[j]]].rect)) {
+                for (i in 0 until NUM_SUB_STEPS) subStepX(bb, position, velocity, gravity, width, height)
+                return
+            }
+        }
+
+        var hit = NO_HIT
+        for (j in 0 until mapObjectCandidates.size) {
+            val mapObject = mapObjects[mapObjectCandidates[j]]
+            val bounds = mapObject.bounds
+            if (mapObject.type.solid && overlapsAxis(ry, bb.rect.height, bounds.y, bounds.height)) {
+                hit = minOf(hit, firstOverlapStep(offsetX, bb.rect.width, stepX, bounds.x, bounds.width))
+            }
+        }
+        for (j in 0 until collidableCandidates.size) {
+            val cEntity = collidableEntities[collidableCandidates[j]]
+            val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity].rect
+            if (blocksMovement(cEntity) && overlapsAxis(ry, bb.rect.height, bounds.y, bounds.height)) {
+                hit = minOf(hit, firstOverlapStep(offsetX, bb.rect.width, stepX, bounds.x, bounds.width))
+            }
+        }
+
+        if (hit == NO_HIT) {
+            position.x = sweepPositions[NUM_SUB_STEPS]
+            bb.rect.setPosition(position.x + offsetX, ry)
+        }
+        else {
+            // every step after the hit retries the same blocked position, so one step reproduces them all
+            position.x = sweepPositions[hit - 1]
+            subStepX(bb, position, velocity, gravity, width, height)
+        }
+    }
+
+    private fun sweepY(entity: Entity?, bb: BoundingBoxComponent, position: PositionComponent,
+                       velocity: VelocityComponent, gravity: GravityComponent, player: PlayerComponent?,
+                       width: Int, height: Int) {
+        val offsetY = (height - bb.rect.height) / 2
+        val rx = position.x + (width - bb.rect.width) / 2
+        fillSweepPositions(position.y, stepY)
+
+        if (!gravity.collidable) {
+            position.y = sweepPositions[NUM_SUB_STEPS]
+            bb.rect.setPosition(rx, position.y + offsetY)
+            return
+        }
+
+        setSweptRect(rx, sweepPositions[1] + offsetY, rx, sweepPositions[NUM_SUB_STEPS] + offsetY,
+                bb.rect.width, bb.rect.height)
+        queryCandidates(sweptRect)
+
+        var hit = NO_HIT
+        for (j in 0 until mapObjectCandidates.size) {
+            val mapObject = mapObjects[mapObjectCandidates[j]]
+            val bounds = mapObject.bounds
+            if (mapObject.type.solid && overlapsAxis(rx, bb.rect.width, bounds.x, bounds.width)) {
+                hit = minOf(hit, firstOverlapStep(offsetY, bb.rect.height, stepY, bounds.y, bounds.height))
+            }
+        }
+        for (j in 0 until collidableCandidates.size) {
+            val cEntity = collidableEntities[collidableCandidates[j]]
+            val bounds = Mapper.BOUNDING_BOX_MAPPER[cEntity].rect
+            if (blocksMovement(cEntity) && overlapsAxis(rx, bb.rect.width, bounds.x, bounds.width)) {
+                hit = minOf(hit, firstOverlapStep(offsetY, bb.rect.height, stepY, bounds.y, bounds.height))
+            }
+        }
+        for (j in 0 until platformCandidates.size) {
+            val bounds = Mapper.BOUNDING_BOX_MAPPER[movingPlatforms[platformCandidates[j]]].rect
+            if (overlapsAxis(rx, bb.rect.width, bounds.x, bounds.width)) {
+                hit = minOf(hit, firstOverlapStep(offsetY, bb.rect.height, stepY, bounds.y, bounds.height))
+            }
+        }
+
+        if (hit == NO_HIT) {
+            position.y = sweepPositions[NUM_SUB_STEPS]
+            bb.rect.setPosition(rx, position.y + offsetY)
+        }
+        else {
+            // the hit step applies the landing handlers; every later step retries the same blocked
+            // position with dy already zeroed, so a single repeat reproduces them all
+            position.y = sweepPositions[hit - 1]
+            subStepY(entity, bb, position, velocity, gravity, player, width, height)
+            if (hit < NUM_SUB_STEPS) subStepY(entity, bb, position, velocity, gravity, player, width, height)
+        }
+    }
+
+    // accumulates the steps exactly like the sub-step path so both modes land on identical floats
+    private fun fillSweepPositions(start: Float, step: Float) {
+        sweepPositions[0] = start
+        for (i in 1..NUM_SUB_STEPS) sweepPositions[i] = sweepPositions[i - 1] + step
+    }
+
+    private fun setSweptRect(x1: Float, y1: Float, x2: Float, y2: Float, width: Float, height: Float) {
+        val x = minOf(x1, x2)
+        val y = minOf(y1, y2)
+        sweptRect.set(x, y, maxOf(x1, x2) - x + width, maxOf(y1, y2) - y + height)
+    }
+
+    private fun blocksMovement(cEntity: Entity) : Boolean {
+        val mapEntityComp = Mapper.MAP_ENTITY_MAPPER[cEntity]
+        return (mapEntityComp != null && mapEntityComp.mapCollidable) || Mapper.BLOCK_MAPPER[cEntity] != null
+    }
+
+    private fun overlapsAxis(start: Float, size: Float, min: Float, extent: Float) : Boolean =
+            start < min + extent && start + size > min
+
+    private fun firstOverlapStep(offset: Float, size: Float, step: Float, min: Float, extent: Float) : Int {
+        val start = sweepPositions[0] + offset
+        if (step == 0f) return if (overlapsAxis(start, size, min, extent)) 1 else NO_HIT
+
+        val steps = if (step > 0) (min - size - start) / step else (start - min - extent) / -step
+        if (steps >= NUM_SUB_STEPS + 1) return NO_HIT
+
+        var k = if (steps < 0) 1 else minOf(steps.toInt() + 1, NUM_SUB_STEPS)
+        while (k > 1 && overlapsAxis(sweepPositions[k - 1] + offset, size, min, extent)) k--
+        if (overlapsAxis(sweepPositions[k] + offset, size, min, extent)) return k
+        return if (k < NUM_SUB_STEPS && overlapsAxis(sweepPositions[k + 1] + offset, size, min, extent)) k + 1 else NO_HIT
+    }
+
+    private fun queryCandidates(rect: Rectangle) {
+        mapObjectGrid.query(rect, mapObjectCandidates)
+        collidableGrid.query(rect, collidableCandidates)
+        platformGrid.query(rect, platformCandidates)
+    }
+
+    private fun syncEntityGrids() {
+        for (i in 0 until collidableEntities.size()) {
+            val bounds = Mapper.BOUNDING_BOX_MAPPER[collidableEntities[i]]
+            if (bounds != null) collidableGrid.update(i, bounds.rect) else collidableGrid.remove(i)
+        }
+        collidableGrid.removeFrom(collidableEntities.size())
+
+        for (i in 0 until movingPlatforms.size()) {
+            platformGrid.update(i, Mapper.BOUNDING_BOX_MAPPER[movingPlatforms[i]].rect)
+        }
+        platformGrid.removeFrom(movingPlatforms.size())
+
+        for (i in 0 until toggleTiles.size()) {
+            toggleTileGrid.update(i, Mapper.TOGGLE_TILE_MAPPER[toggleTiles[i]].lethalRect)
         }
+        toggleTileGrid.removeFrom(toggleTiles.size())
     }
 
     private fun killEntity(entity: Entity?) {
@@ -239,7 +469,7 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
 
         val bounds = Mapper.BOUNDING_BOX_MAPPER[entity]
         val color = Mapper.COLOR_MAPPER[entity]
-        ParticleSpawner.spawn(res, color.hex!!, DEFAULT_LIFETIME, DEFAULT_INTESITY + health.maxHp,
+        ParticleSpawner.spawn(color.packed, DEFAULT_LIFETIME, DEFAULT_INTESITY + health.maxHp,
                 bounds.rect.x + bounds.rect.width / 2, bounds.rect.y + bounds.rect.height / 2)
     }
 
@@ -248,14 +478,14 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
     }
 
     private fun handleDamageMapObject(mapObject: MapObject, entity: Entity?) {
-        if (damageTimes[entity] == 0f) {
+        if (damageTimers.elapsed(entity!!) == 0f) {
             val health = Mapper.HEALTH_MAPPER[entity]
             health?.hit(mapObject.damage)
-            startDamage[entity!!] = true
+            damageTimers.start(entity)
 
             val bounds = Mapper.BOUNDING_BOX_MAPPER[entity]
             val color = Mapper.COLOR_MAPPER[entity]
-            ParticleSpawner.spawn(res, color.hex!!, DEFAULT_LIFETIME,
+            ParticleSpawner.spawn(color.packed, DEFAULT_LIFETIME,
                     (DEFAULT_INTESITY + mapObject.damage) * 2,
                     bounds.rect.x + bounds.rect.width / 2, bounds.rect.y + bounds.rect.height / 2)
         }
@@ -318,4 +548,11 @@ class MapCollisionSystem(private val res: Resources) : IteratingSystem(
         position.set(position.prevX, position.prevY)
     }
 
+}
+
+enum class CollisionMode {
+
+    SubStep,
+    Swept
+
 }
\ No newline at end of file
@@ -3,11 +3,10 @@ package com.symbol.game.ecs.system
 import com.badlogic.ashley.core.Engine
 import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
-import com.badlogic.ashley.core.PooledEngine
 import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.ashley.utils.ImmutableArray
 import com.symbol.game.ecs.Mapper
-import com.symbol.game.ecs.component.LastEntityComponent
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.ProjectileComponent
 import com.symbol.game.ecs.component.StatusEffect
 import com.symbol.game.ecs.component.enemy.EnemyComponent
@@ -24,7 +23,7 @@ import com.symbol.game.util.Resources
 
 class MapEntitySystem(private val player: Player,
                       private val res: Resources)
-    : IteratingSystem(Family.all(MapEntityComponent::class.java).get()) {
+    : IteratingSystem(Family.all(MapEntityComponent::class.java).exclude(FrozenComponent::class.java).get()) {
 
     private lateinit var portals: ImmutableArray<Entity>
     private lateinit var portalAffectedEntities: ImmutableArray<Entity>
@@ -33,7 +32,7 @@ class MapEntitySystem(private val player: Player,
         super.addedToEngine(engine)
         portals = engine!!.getEntitiesFor(Family.all(PortalComponent::class.java).get())
         portalAffectedEntities = engine.getEntitiesFor(Family.one(PlayerComponent::class.java,
-                EnemyComponent::class.java, ProjectileComponent::class.java).get())
+                EnemyComponent::class.java, ProjectileComponent::class.java).exclude(FrozenComponent::class.java).get())
     }
 
     override fun processEntity(entity: Entity?, dt: Float) {
@@ -114,11 +113,11 @@ class MapEntitySystem(private val player: Player,
             val height = Mapper.TEXTURE_MAPPER[pEntity].texture!!.regionHeight
 
             val lastPortal = Mapper.LAST_ENTITY_MAPPER[pEntity]
-            if (lastPortal?.entity != null && lastPortal.entity!! == entity) {
+            if (lastPortal.entity != null && lastPortal.entity!! == entity) {
                 val leBounds = Mapper.BOUNDING_BOX_MAPPER[lastPortal.entity]
                 if (portalSource.teleported && !pEntityBounds.rect.overlaps(leBounds.rect)) {
                     portalSource.teleported = false
-                    pEntity.remove(LastEntityComponent::class.java)
+                    lastPortal.entity = null
                 }
             }
 
@@ -130,18 +129,12 @@ class MapEntitySystem(private val player: Player,
                             val targetPos = Mapper.BOUNDING_BOX_MAPPER[portal]
                             val entityPos = Mapper.POS_MAPPER[pEntity]
 
-                            entityPos.set(targetPos.rect.x, targetPos.rect.y)
+                            entityPos.teleport(targetPos.rect.x, targetPos.rect.y)
                             pEntityBounds.rect.setPosition(entityPos.x + (width - pEntityBounds.rect.width) / 2,
                                     entityPos.y + (height - pEntityBounds.rect.height) / 2)
                             portalTarget.teleported = true
 
-                            val lastEntity = Mapper.LAST_ENTITY_MAPPER[pEntity]
-                            if (lastEntity == null) {
-                                pEntity?.add((engine as PooledEngine).createComponent(LastEntityComponent::class.java))
-                                Mapper.LAST_ENTITY_MAPPER[pEntity].entity = portal
-                            } else {
-                                lastEntity.entity = portal
-                            }
+                            lastPortal.entity = portal
 
                             break
                         }
@@ -184,7 +177,7 @@ class MapEntitySystem(private val player: Player,
             playerHealth.hp = 0
 
             val color = Mapper.COLOR_MAPPER[player]
-            ParticleSpawner.spawn(res, color.hex!!, DEFAULT_LIFETIME,
+            ParticleSpawner.spawn(color.packed, DEFAULT_LIFETIME,
                     (DEFAULT_INTESITY + playerHealth.maxHp) * 2,
                     playerBounds.rect.x + playerBounds.rect.width / 2,
                     playerBounds.rect.y + playerBounds.rect.height / 2)
@@ -217,7 +210,7 @@ class MapEntitySystem(private val player: Player,
                 if (timer >= duration) {
                     activated = !activated
                     Mapper.TEXTURE_MAPPER[entity].run {
-                        texture = if (activated) res.getTexture(textureStr!!) else null
+                        texture = if (activated) variants(res).base else null
                     }
                     timer = 0f
                 }
@@ -2,15 +2,17 @@ package com.symbol.game.ecs.system
 
 import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
-import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.gdx.math.MathUtils
+import com.symbol.game.ecs.ChunkedIteratingSystem
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.GravityComponent
 import com.symbol.game.ecs.component.PositionComponent
 import com.symbol.game.ecs.component.VelocityComponent
 
-class MovementSystem : IteratingSystem(
-        Family.all(PositionComponent::class.java, VelocityComponent::class.java).exclude(GravityComponent::class.java).get()
+class MovementSystem : ChunkedIteratingSystem(
+        Family.all(PositionComponent::class.java, VelocityComponent::class.java).exclude(GravityComponent::class.java,
+                FrozenComponent::class.java).get()
 ) {
 
     override fun processEntity(entity: Entity?, dt: Float) {
@@ -1,14 +1,14 @@
 package com.symbol.game.ecs.system
 
 import com.badlogic.ashley.core.EntitySystem
+import com.symbol.game.ecs.GameListener
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.entity.Player
-import com.symbol.game.screen.GameScreen
 import com.symbol.game.util.Data
 
 class PlayerSystem(private val player: Player,
                    private val data: Data,
-                   private val gameScreen: GameScreen)
+                   private val listener: GameListener)
     : EntitySystem() {
 
     private var stateTime = 0f
@@ -45,9 +45,7 @@ class PlayerSystem(private val player: Player,
             }
         }
 
-        if (playerComp.dead && !gameScreen.deathDialog.isDisplayed) {
-            gameScreen.showDeathDialog()
-        }
+        if (playerComp.dead) listener.onPlayerDeath()
     }
 
 }
\ No newline at end of file
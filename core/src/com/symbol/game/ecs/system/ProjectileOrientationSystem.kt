@@ -0,0 +1,56 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.systems.IteratingSystem
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.ProjectileComponent
+import com.symbol.game.ecs.component.ProjectileOrientation
+import com.symbol.game.util.Resources
+
+// runs after every system that writes velocity, gravity included, so the texture matches the velocity it's drawn with
+class ProjectileOrientationSystem(private val res: Resources) : IteratingSystem(Family.all(ProjectileComponent::class.java).get()) {
+
+    // projectiles spawned outside of the world update are drawn before this system first processes them
+    private val orientationListener = object : EntityListener {
+        override fun entityAdded(entity: Entity) = processEntity(entity, 0f)
+        override fun entityRemoved(entity: Entity) {}
+    }
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        engine!!.addEntityListener(family, orientationListener)
+    }
+
+    override fun removedFromEngine(engine: Engine?) {
+        super.removedFromEngine(engine)
+        engine!!.removeEntityListener(orientationListener)
+    }
+
+    override fun processEntity(entity: Entity?, dt: Float) {
+        val pj = Mapper.PROJ_MAPPER[entity]
+        if (pj.sub) return
+
+        val velocity = Mapper.VEL_MAPPER[entity]
+        val orientation = when {
+            velocity.dx != 0f && velocity.dy == 0f -> ProjectileOrientation.Horizontal
+            velocity.dx == 0f && velocity.dy != 0f -> ProjectileOrientation.Vertical
+            velocity.dx != 0f && velocity.dy != 0f -> ProjectileOrientation.Diagonal
+            else -> return
+        }
+        if (orientation == pj.orientation) return
+
+        pj.orientation = orientation
+        Mapper.TEXTURE_MAPPER[entity].run {
+            val variants = variants(res)
+            texture = when (orientation) {
+                ProjectileOrientation.Vertical -> variants.top ?: variants.base
+                ProjectileOrientation.Diagonal -> variants.topRight ?: variants.base
+                else -> variants.base
+            }
+        }
+    }
+
+}
\ No newline at end of file
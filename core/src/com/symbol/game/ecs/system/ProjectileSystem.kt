@@ -6,16 +6,18 @@ import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.core.PooledEngine
 import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.ashley.utils.ImmutableArray
-import com.badlogic.gdx.graphics.g2d.TextureRegion
 import com.badlogic.gdx.math.Intersector
 import com.badlogic.gdx.math.MathUtils
 import com.badlogic.gdx.math.Rectangle
 import com.badlogic.gdx.utils.Array
+import com.badlogic.gdx.utils.IntArray
+import com.symbol.game.ecs.Archetypes
 import com.symbol.game.ecs.EntityBuilder
+import com.symbol.game.ecs.EntityTemplate
+import com.symbol.game.ecs.GameListener
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.component.*
 import com.symbol.game.ecs.component.enemy.EnemyComponent
-import com.symbol.game.ecs.component.map.MapEntityComponent
 import com.symbol.game.ecs.component.map.ToggleTileComponent
 import com.symbol.game.ecs.entity.MapEntityType
 import com.symbol.game.ecs.entity.Player
@@ -23,23 +25,47 @@ import com.symbol.game.effects.particle.DEFAULT_INTESITY
 import com.symbol.game.effects.particle.DEFAULT_LIFETIME
 import com.symbol.game.effects.particle.ParticleSpawner
 import com.symbol.game.map.MapObject
+import com.symbol.game.map.SpatialGrid
 import com.symbol.game.map.camera.CameraRotation
-import com.symbol.game.screen.GameScreen
+import com.symbol.game.profiling.FrameProfiler
 import com.symbol.game.util.*
 import kotlin.math.abs
 
 const val DIAGONAL_PROJECTILE_SCALING = 0.75f
 private const val KNOCKBACK_TIME = 0.1f
 private const val GRAVITY_FLIP_TIME = 0.75f
+private const val HITS_TRACK = "Projectile hits"
+
+private const val BURST_SIZE = 8
+// burst directions as (x, y) pairs, in the order each kind of burst has always fired them
+private val ENEMY_BURST = floatArrayOf(1f, 0f, DIAGONAL_PROJECTILE_SCALING, -DIAGONAL_PROJECTILE_SCALING, 0f, -1f,
+        -DIAGONAL_PROJECTILE_SCALING, -DIAGONAL_PROJECTILE_SCALING, -1f, 0f, -DIAGONAL_PROJECTILE_SCALING, DIAGONAL_PROJECTILE_SCALING,
+        0f, 1f, DIAGONAL_PROJECTILE_SCALING, DIAGONAL_PROJECTILE_SCALING)
+private val PLAYER_BURST = floatArrayOf(1f, 0f, 0f, -1f, -1f, 0f, 0f, 1f,
+        DIAGONAL_PROJECTILE_SCALING, -DIAGONAL_PROJECTILE_SCALING, -DIAGONAL_PROJECTILE_SCALING, -DIAGONAL_PROJECTILE_SCALING,
+        -DIAGONAL_PROJECTILE_SCALING, DIAGONAL_PROJECTILE_SCALING, DIAGONAL_PROJECTILE_SCALING, DIAGONAL_PROJECTILE_SCALING)
 
 class ProjectileSystem(private val player: Player,
                        private val res: Resources,
                        private val data: Data,
-                       private val gameScreen: GameScreen)
+                       private val listener: GameListener)
     : IteratingSystem(Family.all(ProjectileComponent::class.java).get()) {
 
     private var mapObjects: Array<MapObject> = Array()
 
+    private val projectileGrid = SpatialGrid()
+    private val projectileCandidates = IntArray()
+    private val healthCandidates = IntArray()
+    private val mapEntityCandidates = IntArray()
+    private var processIndex = 0
+    val collisions = CollisionEvents()
+
+    private val burst = Array<Entity>(false, BURST_SIZE)
+    private val burstPositions = FloatArray(BURST_SIZE * 2)
+    private val burstVelocities = FloatArray(BURST_SIZE * 3)
+
+    private lateinit var builder: EntityBuilder
+    private lateinit var spatialHash: SpatialHashSystem
     private lateinit var allEntities: ImmutableArray<Entity>
     private lateinit var mapEntities: ImmutableArray<Entity>
     private lateinit var toggleTiles: ImmutableArray<Entity>
@@ -47,19 +73,27 @@ class ProjectileSystem(private val player: Player,
 
     override fun addedToEngine(engine: Engine?) {
         super.addedToEngine(engine)
-        allEntities = engine!!.getEntitiesFor(Family.all(HealthComponent::class.java).get())
-        mapEntities = engine.getEntitiesFor(Family.all(MapEntityComponent::class.java).get())
+        builder = EntityBuilder.instance(engine as PooledEngine)
+        spatialHash = engine.getSystem(SpatialHashSystem::class.java)
+        allEntities = spatialHash.healthEntities
+        mapEntities = spatialHash.mapEntities
         toggleTiles = engine.getEntitiesFor(Family.all(ToggleTileComponent::class.java).get())
         enemies = engine.getEntitiesFor(Family.all(EnemyComponent::class.java).get())
     }
 
-    fun setMapData(mapObjects: Array<MapObject>) {
+    fun setMapData(mapObjects: Array<MapObject>, mapWidth: Int, mapHeight: Int) {
         this.mapObjects.clear()
         this.mapObjects.addAll(mapObjects)
+        projectileGrid.resize(mapWidth, mapHeight)
     }
 
     override fun update(dt: Float) {
+        buildProjectileGrid()
+        processIndex = 0
+        collisions.clear()
         super.update(dt)
+        resolveCollisions()
+        FrameProfiler.count(HITS_TRACK, collisions.size)
 
         allEntities.forEach {
             Mapper.KNOCKBACK_MAPPER[it]?.run {
@@ -77,13 +111,13 @@ class ProjectileSystem(private val player: Player,
 
     override fun processEntity(entity: Entity?, dt: Float) {
         val pj = Mapper.PROJ_MAPPER[entity]
-        val color = Mapper.COLOR_MAPPER[entity]
         val bb = Mapper.BOUNDING_BOX_MAPPER[entity]
         val position = Mapper.POS_MAPPER[entity]
         val velocity = Mapper.VEL_MAPPER[entity]
         val width = Mapper.TEXTURE_MAPPER[entity].texture!!.regionWidth
         val height = Mapper.TEXTURE_MAPPER[entity].texture!!.regionHeight
         val remove = Mapper.REMOVE_MAPPER[entity]
+        val index = processIndex++
         bb.rect.setPosition(position.x + (width - bb.rect.width) / 2, position.y + (height - bb.rect.height) / 2)
 
         pj.lifeTime += dt
@@ -117,11 +151,11 @@ class ProjectileSystem(private val player: Player,
             }
         }
 
+        // the hits are only recorded here and applied by resolveCollisions once every projectile is done
         if (pj.collidesWithTerrain) {
             for (mapObject in mapObjects) {
                 if (bb.rect.overlaps(mapObject.bounds)) {
-                    if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bb.rect)
-                    removeAndSpawnParticles(color, pj, position, width, height, remove)
+                    collisions.add(CollisionType.Terrain, index)
                     break
                 }
             }
@@ -129,52 +163,31 @@ class ProjectileSystem(private val player: Player,
 
         handleMapEntityCollisions(entity)
 
-        for (projectile in entities) {
-            val projectileComp = Mapper.PROJ_MAPPER[projectile]
-            if (entity!! != projectile && projectileComp.collidesWithProjectiles) {
-                val bounds = Mapper.BOUNDING_BOX_MAPPER[projectile]
-                if (bb.rect.overlaps(bounds.rect)) {
-                    if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bb.rect)
-                    remove.shouldRemove = true
-                    val projectileRemove = Mapper.REMOVE_MAPPER[projectile]
-                    projectileRemove.shouldRemove = true
-                    break
-                }
+        projectileGrid.query(bb.rect, projectileCandidates)
+        for (j in 0 until projectileCandidates.size) {
+            if (projectileCandidates[j] == index) continue
+            val bounds = Mapper.BOUNDING_BOX_MAPPER[entities[projectileCandidates[j]]]
+            if (bb.rect.overlaps(bounds.rect)) {
+                collisions.add(CollisionType.Projectile, index, projectileCandidates[j])
+                break
             }
         }
 
-        for (e in allEntities) {
+        spatialHash.queryHealth(bb.rect, healthCandidates)
+        for (j in 0 until healthCandidates.size) {
+            val e = allEntities[healthCandidates[j]]
             val ebb = Mapper.BOUNDING_BOX_MAPPER[e]
-            val ev = Mapper.VEL_MAPPER[e]
 
             if (bb.rect.overlaps(ebb.rect)) {
-                val knockback = Mapper.KNOCKBACK_MAPPER[e]
                 val player = Mapper.PLAYER_MAPPER[e]
 
-                if (Mapper.AFFECT_ALL_MAPPER[entity] != null ||
+                if (pj.affectAll ||
                         (Mapper.PLAYER_MAPPER[entity] == null && player != null) ||
                         (Mapper.PLAYER_MAPPER[entity] != null && player == null)) {
                     val corp = Mapper.CORPOREAL_MAPPER[e]
                     if (corp != null && !corp.corporeal) break
 
-                    val trap = Mapper.TRAP_MAPPER[e]
-                    if (trap != null) handleTrapEnemy(e)
-
-                    if (knockback != null) {
-                        ev.prevVel = ev.dx
-                        ev.dx = if (bb.rect.x < ebb.rect.x + ebb.rect.width / 2) pj.knockback else -pj.knockback
-                        knockback.knockingBack = true
-                    }
-                    charge(entity, pj)
-                    hit(e, pj.damage)
-
-                    val se = Mapper.STATUS_EFFECT_MAPPER[entity]
-                    val target = Mapper.STATUS_EFFECT_MAPPER[e]
-                    if (se != null && target != null) target.apply(se.apply, se.duration, se.value)
-
-                    if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bb.rect)
-
-                    remove.shouldRemove = true
+                    collisions.add(CollisionType.Health, index, healthCandidates[j])
                     break
                 }
             }
@@ -190,10 +203,75 @@ class ProjectileSystem(private val player: Player,
         handleDetonation(entity, pj, bb.rect, remove)
     }
 
+    // in the order the hits were found, so the result doesn't depend on which projectile saw a hit first
+    private fun resolveCollisions() {
+        for (i in 0 until collisions.size) {
+            val entity = entities[collisions.source(i)]
+            val pj = Mapper.PROJ_MAPPER[entity]
+            val bb = Mapper.BOUNDING_BOX_MAPPER[entity]
+            val remove = Mapper.REMOVE_MAPPER[entity]
+
+            when (collisions.type(i)) {
+                CollisionType.Terrain -> {
+                    if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bb.rect)
+                    val texture = Mapper.TEXTURE_MAPPER[entity].texture!!
+                    removeAndSpawnParticles(Mapper.COLOR_MAPPER[entity], pj, Mapper.POS_MAPPER[entity],
+                            texture.regionWidth, texture.regionHeight, remove)
+                }
+                CollisionType.Projectile -> {
+                    if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bb.rect)
+                    remove.shouldRemove = true
+                    Mapper.REMOVE_MAPPER[entities[collisions.target(i)]].shouldRemove = true
+                }
+                CollisionType.Health -> {
+                    resolveHit(entity, pj, bb.rect, allEntities[collisions.target(i)])
+                    remove.shouldRemove = true
+                }
+            }
+        }
+    }
+
+    private fun resolveHit(entity: Entity, pj: ProjectileComponent, bounds: Rectangle, e: Entity) {
+        val trap = Mapper.TRAP_MAPPER[e]
+        if (trap != null) handleTrapEnemy(e)
+
+        val knockback = Mapper.KNOCKBACK_MAPPER[e]
+        if (knockback != null) {
+            val ebb = Mapper.BOUNDING_BOX_MAPPER[e]
+            val ev = Mapper.VEL_MAPPER[e]
+            ev.prevVel = ev.dx
+            ev.dx = if (bounds.x < ebb.rect.x + ebb.rect.width / 2) pj.knockback else -pj.knockback
+            knockback.knockingBack = true
+        }
+        charge(entity, pj)
+        hit(e, pj.damage)
+
+        val se = Mapper.STATUS_EFFECT_MAPPER[entity]
+        val target = Mapper.STATUS_EFFECT_MAPPER[e]
+        if (se != null && target != null) target.apply(se.apply, se.duration, se.value)
+
+        if (pj.playerType != 0) handlePlayerProjectile(entity, pj, bounds)
+    }
+
+    private fun buildProjectileGrid() {
+        projectileGrid.clear()
+        for (i in 0 until entities.size()) {
+            val projectile = entities[i]
+            if (!Mapper.PROJ_MAPPER[projectile].collidesWithProjectiles) continue
+
+            val bb = Mapper.BOUNDING_BOX_MAPPER[projectile]
+            val position = Mapper.POS_MAPPER[projectile]
+            val texture = Mapper.TEXTURE_MAPPER[projectile].texture!!
+            bb.rect.setPosition(position.x + (texture.regionWidth - bb.rect.width) / 2,
+                    position.y + (texture.regionHeight - bb.rect.height) / 2)
+            projectileGrid.insert(i, bb.rect)
+        }
+    }
+
     private fun removeAndSpawnParticles(color: ColorComponent, pj: ProjectileComponent,
                                         position: PositionComponent, width: Int, height: Int,
                                         remove: RemoveComponent) {
-        ParticleSpawner.spawn(res, color.hex!!,
+        ParticleSpawner.spawn(color.packed,
                 DEFAULT_LIFETIME, DEFAULT_INTESITY + pj.damage,
                 position.x + width / 2,
                 position.y + height / 2)
@@ -214,7 +292,7 @@ class ProjectileSystem(private val player: Player,
         if (health.hp <= 0) intensity *= 2
 
         val entityColor = Mapper.COLOR_MAPPER[entity]
-        ParticleSpawner.spawn(res, entityColor.hex!!,
+        ParticleSpawner.spawn(entityColor.packed,
                 DEFAULT_LIFETIME, intensity,
                 ebb.rect.x + ebb.rect.width / 2,
                 ebb.rect.y + ebb.rect.height / 2)
@@ -244,14 +322,16 @@ class ProjectileSystem(private val player: Player,
         val height = Mapper.TEXTURE_MAPPER[entity].texture!!.regionHeight
         val remove = Mapper.REMOVE_MAPPER[entity]
 
-        for (mapEntity in mapEntities) {
+        spatialHash.queryMapEntities(bb.rect, position.originX, position.originY, mapEntityCandidates)
+        for (j in 0 until mapEntityCandidates.size) {
+            val mapEntity = mapEntities[mapEntityCandidates[j]]
             val me = Mapper.MAP_ENTITY_MAPPER[mapEntity]
             val bounds = Mapper.BOUNDING_BOX_MAPPER[mapEntity]
             val boundsCircle = Mapper.BOUNDING_CIRCLE_MAPPER[mapEntity]
 
             val overlap = if (boundsCircle == null) bb.rect.overlaps(bounds.rect) else
                 Intersector.overlaps(boundsCircle.circle, bb.rect)
-            val affectAllOrFromPlayer = Mapper.AFFECT_ALL_MAPPER[entity] != null ||
+            val affectAllOrFromPlayer = pj.affectAll ||
                     Mapper.PLAYER_MAPPER[entity] != null
 
             if (!pj.sub && overlap) {
@@ -288,11 +368,11 @@ class ProjectileSystem(private val player: Player,
         }
 
         val lastEntity = Mapper.LAST_ENTITY_MAPPER[entity]
-        if (lastEntity?.entity != null) {
+        if (lastEntity.entity != null) {
             val leBounds = Mapper.BOUNDING_BOX_MAPPER[lastEntity.entity]
             if (!bb.rect.overlaps(leBounds.rect)) {
                 pj.withinMirror = false
-                entity?.remove(LastEntityComponent::class.java)
+                lastEntity.entity = null
             }
         }
     }
@@ -302,16 +382,10 @@ class ProjectileSystem(private val player: Player,
             if (pj.lifeTime >= pj.detonateTime) {
                 val vel = Mapper.VEL_MAPPER[entity]
                 val speed = if (vel.dx != 0f) Math.abs(vel.dx) else Math.abs(vel.dy)
-                val texture = res.getSubProjectileTextureFor(pj.textureStr!!)!!
 
-                createSubProjectile(pj.damage, bounds, speed, 0f, texture)
-                createSubProjectile(pj.damage, bounds, speed * DIAGONAL_PROJECTILE_SCALING, -speed * DIAGONAL_PROJECTILE_SCALING, texture)
-                createSubProjectile(pj.damage, bounds, 0f, -speed, texture)
-                createSubProjectile(pj.damage, bounds, -speed * DIAGONAL_PROJECTILE_SCALING, -speed * DIAGONAL_PROJECTILE_SCALING, texture)
-                createSubProjectile(pj.damage, bounds, -speed, 0f, texture)
-                createSubProjectile(pj.damage, bounds, -speed * DIAGONAL_PROJECTILE_SCALING, speed * DIAGONAL_PROJECTILE_SCALING, texture)
-                createSubProjectile(pj.damage, bounds, 0f, speed, texture)
-                createSubProjectile(pj.damage, bounds, speed * DIAGONAL_PROJECTILE_SCALING, speed * DIAGONAL_PROJECTILE_SCALING, texture)
+                createBurst(Archetypes.subProjectile(pj.textureStr!!), bounds, speed, ENEMY_BURST)
+                for (sub in burst) Mapper.PROJ_MAPPER[sub].damage = pj.damage
+                burst.clear()
 
                 remove.shouldRemove = true
             }
@@ -322,20 +396,9 @@ class ProjectileSystem(private val player: Player,
         if (pj.playerType == 4) {
             val vel = Mapper.VEL_MAPPER[entity]
             val speed = if (vel.dx != 0f) Math.abs(vel.dx) else Math.abs(vel.dy)
-            val texture = res.getSubProjectileTextureFor(pj.textureStr!!)!!
-
-            createSubProjectile(1, bounds, speed, 0f, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, 0f, -speed, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, -speed, 0f, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, 0f, speed, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, speed * DIAGONAL_PROJECTILE_SCALING,
-                    -speed * DIAGONAL_PROJECTILE_SCALING, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, -speed * DIAGONAL_PROJECTILE_SCALING,
-                    -speed * DIAGONAL_PROJECTILE_SCALING, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, -speed * DIAGONAL_PROJECTILE_SCALING,
-                    speed * DIAGONAL_PROJECTILE_SCALING, texture, false, true, data.getColor("p_dot"))
-            createSubProjectile(1, bounds, speed * DIAGONAL_PROJECTILE_SCALING,
-                    speed * DIAGONAL_PROJECTILE_SCALING, texture, false, true, data.getColor("p_dot"))
+
+            createBurst(Archetypes.playerSubProjectile, bounds, speed, PLAYER_BURST)
+            burst.clear()
         }
     }
 
@@ -389,23 +452,20 @@ class ProjectileSystem(private val player: Player,
         if (abs(y - py) <= 1f) velocity.dy = 0f
     }
 
-    private fun createSubProjectile(damage: Int, bounds: Rectangle,
-                                    dx: Float = 0f, dy: Float = 0f, texture: TextureRegion,
-                                    enemy: Boolean = true,
-                                    collidesWithTerrain: Boolean = false,
-                                    hex: String? = null) {
-        val bw = texture.regionWidth - 1
-        val bh = texture.regionHeight - 1
-        val builder = EntityBuilder.instance(engine as PooledEngine)
-                .projectile(sub = true, collidesWithTerrain = collidesWithTerrain, damage = damage)
-                .position(bounds.x + (bounds.width / 2) - (bw / 2), bounds.y + (bounds.height / 2) - (bh / 2))
-                .velocity(dx = dx, dy = dy)
-                .boundingBox(bw.toFloat(), bh.toFloat())
-                .texture(texture)
-                .direction(yFlip = true).remove()
-        if (!enemy) builder.player()
-        if (hex != null) builder.color(hex)
-        builder.build()
+    // eight sub projectiles out of the centre of bounds, leaves them in burst
+    private fun createBurst(template: EntityTemplate, bounds: Rectangle, speed: Float, directions: FloatArray) {
+        val x = bounds.x + (bounds.width / 2) - (template.width.toInt() / 2)
+        val y = bounds.y + (bounds.height / 2) - (template.height.toInt() / 2)
+        for (i in 0 until BURST_SIZE) {
+            burstPositions[i * 2] = x
+            burstPositions[i * 2 + 1] = y
+            burstVelocities[i * 3] = speed * directions[i * 2]
+            burstVelocities[i * 3 + 1] = speed * directions[i * 2 + 1]
+            burstVelocities[i * 3 + 2] = 0f
+        }
+
+        burst.clear()
+        template.spawn(builder, BURST_SIZE, burstPositions, burstVelocities, burst)
     }
 
     private fun handleTeleportation(entity: Entity?) {
@@ -419,7 +479,7 @@ class ProjectileSystem(private val player: Player,
                 val randX = MathUtils.random(platform.x, platform.x + platform.width - bounds.rect.width)
                 val newY = platform.y + platform.height + bounds.rect.height / 2
 
-                position.set(randX, newY)
+                position.teleport(randX, newY)
                 velocity.dx = 0f
             }
         }
@@ -456,7 +516,7 @@ class ProjectileSystem(private val player: Player,
         val pBounds = Mapper.BOUNDING_BOX_MAPPER[entity]
         val mBounds = Mapper.BOUNDING_BOX_MAPPER[mapEntity]
         val velocity = Mapper.VEL_MAPPER[entity]
-        entity?.add((engine as PooledEngine).createComponent(AffectAllComponent::class.java))
+        pj.affectAll = true
 
         val pRight = velocity.dx > 0 && velocity.dy == 0f
         val pLeft = velocity.dx < 0 && velocity.dy == 0f
@@ -548,13 +608,7 @@ class ProjectileSystem(private val player: Player,
 
     private fun applyMirror(entity: Entity?, mapEntity: Entity?, pj: ProjectileComponent) {
         pj.withinMirror = true
-        val lastEntity = Mapper.LAST_ENTITY_MAPPER[entity]
-        if (lastEntity == null) {
-            entity?.add((engine as PooledEngine).createComponent(LastEntityComponent::class.java))
-            Mapper.LAST_ENTITY_MAPPER[entity].entity = mapEntity
-        } else {
-            lastEntity.entity = mapEntity
-        }
+        Mapper.LAST_ENTITY_MAPPER[entity].entity = mapEntity
     }
 
     private fun handleGravitySwitch() {
@@ -568,8 +622,7 @@ class ProjectileSystem(private val player: Player,
                 val gme = Mapper.MAP_ENTITY_MAPPER[it]
                 if (gme.mapEntityType == MapEntityType.GravitySwitch) {
                     val meTexture = Mapper.TEXTURE_MAPPER[it]
-                    meTexture.texture = res.getTexture(meTexture.textureStr +
-                            if (gravity.reverse) TOGGLE_ON else TOGGLE_OFF)
+                    meTexture.texture = meTexture.variants(res).run { if (gravity.reverse) on else off }
                 }
             }
         }
@@ -580,8 +633,7 @@ class ProjectileSystem(private val player: Player,
         val switchTexture = Mapper.TEXTURE_MAPPER[mapEntity]
 
         switch.toggle = !switch.toggle
-        switchTexture.texture = res.getTexture(switchTexture.textureStr +
-                if (switch.toggle) TOGGLE_ON else TOGGLE_OFF)
+        switchTexture.texture = switchTexture.variants(res).run { if (switch.toggle) on else off }
 
         toggleTiles.forEach {
             val tme = Mapper.MAP_ENTITY_MAPPER[it]
@@ -590,7 +642,7 @@ class ProjectileSystem(private val player: Player,
 
             if (switch.targetId == toggleComp.id) {
                 toggleComp.toggle = !toggleComp.toggle
-                toggleTexture.texture = if (toggleComp.toggle) res.getTexture(toggleTexture.textureStr!!) else null
+                toggleTexture.texture = if (toggleComp.toggle) toggleTexture.variants(res).base else null
                 tme.mapCollidable = toggleComp.toggle
                 tme.projectileCollidable = toggleComp.toggle
             }
@@ -622,7 +674,7 @@ class ProjectileSystem(private val player: Player,
     private fun handleInvertSwitch(entity: Entity?) {
         Mapper.INVERT_SWITCH_MAPPER[entity].run {
             toggle = !toggle
-            gameScreen.mapInverted = toggle
+            listener.onMapInverted(toggle)
         }
         enemies.forEach {
             Mapper.ENEMY_MAPPER[it].run { visible = !visible }
@@ -0,0 +1,130 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.core.PooledEngine
+import com.badlogic.ashley.utils.ImmutableArray
+import com.badlogic.gdx.graphics.Camera
+import com.badlogic.gdx.math.MathUtils
+import com.badlogic.gdx.utils.Array
+import com.symbol.game.Config
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
+import com.symbol.game.ecs.component.PositionComponent
+import com.symbol.game.ecs.component.player.PlayerComponent
+import com.symbol.game.ecs.entity.Player
+import com.symbol.game.map.TILE_SIZE
+
+private const val CHUNK_SIZE = Config.SIM_CHUNK_TILES * TILE_SIZE
+
+// freezes everything outside the chunks around the camera. frozen entities are kept per chunk
+// so they cost nothing until their chunk comes back into range, projectiles are removed instead.
+// chunks thaw within radius but only freeze beyond radius + 1, so hovering on a chunk border doesn't
+// freeze and thaw the same entities every few frames
+class RegionSystem(private val player: Player) : EntitySystem() {
+
+    // the region follows the camera when there is one and the player otherwise
+    var camera: Camera? = null
+    var radius = Config.SIM_RADIUS_CHUNKS
+
+    private var cols = 1
+    private var rows = 1
+    private val frozen = Array<Array<Entity>>()
+
+    // the chunks thawed since the last update, empty before the first one. entities are kept
+    // awake one chunk further out than this
+    private var minCol = 0
+    private var minRow = 0
+    private var maxCol = -1
+    private var maxRow = -1
+
+    private lateinit var active: ImmutableArray<Entity>
+
+    // thawed entities have already lost the component, so only ones removed while frozen are unlisted here
+    private val frozenListener = object : EntityListener {
+        override fun entityAdded(entity: Entity) {}
+        override fun entityRemoved(entity: Entity) {
+            Mapper.FROZEN_MAPPER[entity]?.let { frozen[it.chunk].removeValue(entity, true) }
+        }
+    }
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        active = engine!!.getEntitiesFor(Family.all(PositionComponent::class.java)
+                .exclude(FrozenComponent::class.java, PlayerComponent::class.java).get())
+        engine.addEntityListener(Family.all(FrozenComponent::class.java).get(), frozenListener)
+    }
+
+    override fun removedFromEngine(engine: Engine?) {
+        super.removedFromEngine(engine)
+        engine!!.removeEntityListener(frozenListener)
+    }
+
+    fun setMapData(mapWidth: Int, mapHeight: Int) {
+        cols = MathUtils.ceil(mapWidth.toFloat() / CHUNK_SIZE).coerceAtLeast(1)
+        rows = MathUtils.ceil(mapHeight.toFloat() / CHUNK_SIZE).coerceAtLeast(1)
+
+        frozen.clear()
+        repeat(cols * rows) { frozen.add(Array(false, 16)) }
+        maxCol = -1
+        maxRow = -1
+    }
+
+    override fun update(dt: Float) {
+        val camera = camera
+        val col = col(camera?.position?.x ?: Mapper.POS_MAPPER[player].x)
+        val row = row(camera?.position?.y ?: Mapper.POS_MAPPER[player].y)
+        val newMinCol = maxOf(col - radius, 0)
+        val newMinRow = maxOf(row - radius, 0)
+        val newMaxCol = minOf(col + radius, cols - 1)
+        val newMaxRow = minOf(row + radius, rows - 1)
+
+        if (newMinCol != minCol || newMinRow != minRow || newMaxCol != maxCol || newMaxRow != maxRow) {
+            for (r in newMinRow..newMaxRow) {
+                for (c in newMinCol..newMaxCol) {
+                    if (!inRegion(c, r)) thaw(r * cols + c)
+                }
+            }
+            minCol = newMinCol
+            minRow = newMinRow
+            maxCol = newMaxCol
+            maxRow = newMaxRow
+        }
+
+        // during engine.update ashley only takes a frozen entity out of the family once this system is done,
+        // when update is called on its own it happens straight away. backwards works either way
+        for (i in active.size() - 1 downTo 0) {
+            val entity = active[i]
+            val position = Mapper.POS_MAPPER[entity]
+            val c = col(position.x)
+            val r = row(position.y)
+            if (c in minCol - 1..maxCol + 1 && r in minRow - 1..maxRow + 1) continue
+
+            if (Mapper.PROJ_MAPPER[entity] != null) Mapper.REMOVE_MAPPER[entity].shouldRemove = true
+            else freeze(entity, r * cols + c)
+        }
+    }
+
+    private fun freeze(entity: Entity, chunk: Int) {
+        val frozenComponent = (engine as PooledEngine).createComponent(FrozenComponent::class.java)
+        frozenComponent.chunk = chunk
+        entity.add(frozenComponent)
+        frozen[chunk].add(entity)
+    }
+
+    private fun thaw(chunk: Int) {
+        val entities = frozen[chunk]
+        for (i in 0 until entities.size) entities[i].remove(FrozenComponent::class.java)
+        entities.clear()
+    }
+
+    private fun inRegion(col: Int, row: Int) : Boolean = col in minCol..maxCol && row in minRow..maxRow
+
+    private fun col(x: Float) : Int = MathUtils.clamp(MathUtils.floor(x / CHUNK_SIZE), 0, cols - 1)
+
+    private fun row(y: Float) : Int = MathUtils.clamp(MathUtils.floor(y / CHUNK_SIZE), 0, rows - 1)
+
+}
\ No newline at end of file
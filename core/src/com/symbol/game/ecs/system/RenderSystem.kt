@@ -6,16 +6,13 @@ import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.gdx.graphics.OrthographicCamera
 import com.badlogic.gdx.graphics.g2d.Batch
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.TextureComponent
 import com.symbol.game.map.camera.CameraUtil
-import com.symbol.game.util.Resources
-import com.symbol.game.util.TOP
-import com.symbol.game.util.TOP_RIGHT
 
 class RenderSystem(private val batch: Batch,
-                   private val cam: OrthographicCamera,
-                   private val res: Resources)
-    : IteratingSystem(Family.all(TextureComponent::class.java).get()) {
+                   private val cam: OrthographicCamera)
+    : IteratingSystem(Family.all(TextureComponent::class.java).exclude(FrozenComponent::class.java).get()) {
 
     override fun processEntity(entity: Entity?, dt: Float) {
         val texture = Mapper.TEXTURE_MAPPER[entity]
@@ -36,8 +33,6 @@ class RenderSystem(private val batch: Batch,
         var fWidth = width
         var fHeight = height
 
-        applyProjectileFlip(entity)
-
         if (dir != null) {
             if (!dir.facingRight) {
                 xOffset = width
@@ -49,25 +44,8 @@ class RenderSystem(private val batch: Batch,
             }
         }
 
-        if (CameraUtil.withinCamera(position.x + xOffset, position.y + yOffset, cam)) {
-            batch.draw(texture.texture, position.x + xOffset, position.y + yOffset, fWidth, fHeight)
-        }
-    }
-
-    private fun applyProjectileFlip(entity: Entity?) {
-        val proj = Mapper.PROJ_MAPPER[entity]
-        if (proj != null && !proj.sub) {
-            val texture = Mapper.TEXTURE_MAPPER[entity]
-            val velocity = Mapper.VEL_MAPPER[entity]
-
-            val defaultTexture = res.getTexture(texture.textureStr!!)
-
-            if (velocity.dx != 0f && velocity.dy == 0f)
-                texture.texture = defaultTexture
-            else if (velocity.dx == 0f && velocity.dy != 0f)
-                texture.texture = res.getTexture(texture.textureStr + TOP) ?: defaultTexture
-            else if (velocity.dx != 0f && velocity.dy != 0f)
-                texture.texture = res.getTexture(texture.textureStr + TOP_RIGHT) ?: defaultTexture
+        if (CameraUtil.withinCamera(position.renderX, position.renderY, cam, width, height)) {
+            batch.draw(texture.texture, position.renderX + xOffset, position.renderY + yOffset, fWidth, fHeight)
         }
     }
 
@@ -0,0 +1,65 @@
+package com.symbol.game.ecs.system
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.ashley.core.Family
+import com.badlogic.ashley.utils.ImmutableArray
+import com.badlogic.gdx.math.Rectangle
+import com.badlogic.gdx.utils.IntArray
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
+import com.symbol.game.ecs.component.HealthComponent
+import com.symbol.game.ecs.component.map.MapEntityComponent
+import com.symbol.game.map.SpatialGrid
+
+// query results are indices into healthEntities and mapEntities
+class SpatialHashSystem : EntitySystem() {
+
+    lateinit var healthEntities: ImmutableArray<Entity> private set
+    lateinit var mapEntities: ImmutableArray<Entity> private set
+
+    private val healthGrid = SpatialGrid()
+    private val mapEntityGrid = SpatialGrid()
+    private val circleBounds = Rectangle()
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        healthEntities = engine!!.getEntitiesFor(Family.all(HealthComponent::class.java).exclude(FrozenComponent::class.java).get())
+        mapEntities = engine.getEntitiesFor(Family.all(MapEntityComponent::class.java).exclude(FrozenComponent::class.java).get())
+    }
+
+    fun setMapData(mapWidth: Int, mapHeight: Int) {
+        healthGrid.resize(mapWidth, mapHeight)
+        mapEntityGrid.resize(mapWidth, mapHeight)
+    }
+
+    override fun update(dt: Float) {
+        for (i in 0 until healthEntities.size()) {
+            healthGrid.update(i, Mapper.BOUNDING_BOX_MAPPER[healthEntities[i]].rect)
+        }
+        healthGrid.removeFrom(healthEntities.size())
+
+        for (i in 0 until mapEntities.size()) {
+            val mapEntity = mapEntities[i]
+            val boundsCircle = Mapper.BOUNDING_CIRCLE_MAPPER[mapEntity]
+            if (boundsCircle != null) {
+                boundsCircle.circle.run { circleBounds.set(x - radius, y - radius, radius * 2, radius * 2) }
+                mapEntityGrid.update(i, circleBounds)
+            }
+            else {
+                val bounds = Mapper.BOUNDING_BOX_MAPPER[mapEntity]
+                if (bounds != null) mapEntityGrid.update(i, bounds.rect) else mapEntityGrid.remove(i)
+            }
+        }
+        mapEntityGrid.removeFrom(mapEntities.size())
+    }
+
+    fun queryHealth(rect: Rectangle, out: IntArray) = healthGrid.query(rect, out)
+
+    fun queryHealthUnsorted(rect: Rectangle, out: IntArray) = healthGrid.queryUnsorted(rect, out)
+
+    // circle entities react to a projectile's origin as well as its bounds
+    fun queryMapEntities(rect: Rectangle, x: Float, y: Float, out: IntArray) = mapEntityGrid.query(rect, x, y, out)
+
+}
\ No newline at end of file
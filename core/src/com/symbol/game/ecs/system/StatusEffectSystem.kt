@@ -4,12 +4,13 @@ import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.systems.IteratingSystem
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.ProjectileComponent
 import com.symbol.game.ecs.component.StatusEffect
 import com.symbol.game.ecs.component.StatusEffectComponent
 
 class StatusEffectSystem : IteratingSystem(Family.all(StatusEffectComponent::class.java)
-        .exclude(ProjectileComponent::class.java).get()) {
+        .exclude(ProjectileComponent::class.java, FrozenComponent::class.java).get()) {
 
     override fun processEntity(entity: Entity?, dt: Float) {
         Mapper.STATUS_EFFECT_MAPPER[entity]?.let { se ->
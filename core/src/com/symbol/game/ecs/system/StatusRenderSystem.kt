@@ -6,11 +6,13 @@ import com.badlogic.ashley.systems.IteratingSystem
 import com.badlogic.gdx.graphics.OrthographicCamera
 import com.badlogic.gdx.graphics.g2d.Batch
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.HealthComponent
 import com.symbol.game.ecs.component.ProjectileComponent
 import com.symbol.game.ecs.component.StatusEffect
 import com.symbol.game.ecs.component.StatusEffectComponent
 import com.symbol.game.map.camera.CameraUtil
+import com.symbol.game.util.Data
 import com.symbol.game.util.Resources
 import com.symbol.game.util.STATUS_EFFECT
 
@@ -25,9 +27,15 @@ private const val SE_Y_OFFSET = 2
 
 class StatusRenderSystem(private val batch: Batch,
                          private val res: Resources,
+                         data: Data,
                          private val cam: OrthographicCamera)
     : IteratingSystem(Family.one(StatusEffectComponent::class.java,
-        HealthComponent::class.java).exclude(ProjectileComponent::class.java).get()) {
+        HealthComponent::class.java).exclude(ProjectileComponent::class.java, FrozenComponent::class.java).get()) {
+
+    private val black = data.getPackedColor("black")
+    private val hpBarBgColor = data.getPackedColor("hp_bar_bg_color")
+    private val hpBarColor = data.getPackedColor("hp_bar_color")
+    private val statusEffectTextures = StatusEffect.values().map { res.getTexture(STATUS_EFFECT + it.typeStr) }
 
     override fun processEntity(entity: Entity, dt: Float) {
         val pos = Mapper.POS_MAPPER[entity]
@@ -51,13 +59,16 @@ class StatusRenderSystem(private val batch: Batch,
             val maxHpBarWidth = width + HP_BAR_X_OFFSET * 2 - 2
             val hpBarWidth = maxHpBarWidth * (health.hp.toFloat() / health.maxHp)
 
-            if (CameraUtil.withinCamera(pos.x - HP_BAR_X_OFFSET, pos.y + height + HP_BAR_Y_OFFSET.toFloat(), cam)) {
-                batch.draw(res.getTexture("black"), pos.x - HP_BAR_X_OFFSET, pos.y + height + HP_BAR_Y_OFFSET.toFloat(),
+            if (CameraUtil.withinCamera(pos.renderX - HP_BAR_X_OFFSET, pos.renderY + height + HP_BAR_Y_OFFSET.toFloat(), cam,
+                            width + HP_BAR_X_OFFSET * 2, (HEALTH_BAR_HEIGHT + 2).toFloat())) {
+                val batchColor = batch.packedColor
+                drawBar(black, pos.renderX - HP_BAR_X_OFFSET, pos.renderY + height + HP_BAR_Y_OFFSET.toFloat(),
                         width + HP_BAR_X_OFFSET * 2, (HEALTH_BAR_HEIGHT + 2).toFloat())
-                batch.draw(res.getTexture("hp_bar_bg_color"), pos.x - HP_BAR_X_OFFSET + 1, pos.y + height + HP_BAR_Y_OFFSET.toFloat() + 1f,
+                drawBar(hpBarBgColor, pos.renderX - HP_BAR_X_OFFSET + 1, pos.renderY + height + HP_BAR_Y_OFFSET.toFloat() + 1f,
                         maxHpBarWidth, HEALTH_BAR_HEIGHT.toFloat())
-                batch.draw(res.getTexture("hp_bar_color"), pos.x - HP_BAR_X_OFFSET + 1, pos.y + height + HP_BAR_Y_OFFSET.toFloat() + 1f,
+                drawBar(hpBarColor, pos.renderX - HP_BAR_X_OFFSET + 1, pos.renderY + height + HP_BAR_Y_OFFSET.toFloat() + 1f,
                         hpBarWidth, HEALTH_BAR_HEIGHT.toFloat())
+                batch.setColor(batchColor)
             }
 
             val duration = if (hasStatusEffect) HP_BAR_VISIBLE_DURATION_WITH_SE else HP_BAR_VISIBLE_DURATION
@@ -68,12 +79,17 @@ class StatusRenderSystem(private val batch: Batch,
             }
         }
         else if (hasStatusEffect) {
-            if (CameraUtil.withinCamera(pos.x + (width - SE_SIZE) / 2, pos.y + height + SE_Y_OFFSET, cam)) {
-                batch.draw(res.getTexture(STATUS_EFFECT + se.type.typeStr),
-                        pos.x + (width - SE_SIZE) / 2,
-                        pos.y + height + SE_Y_OFFSET)
+            if (CameraUtil.withinCamera(pos.renderX + (width - SE_SIZE) / 2, pos.renderY + height + SE_Y_OFFSET, cam, SE_SIZE, SE_SIZE)) {
+                batch.draw(statusEffectTextures[se.type.ordinal],
+                        pos.renderX + (width - SE_SIZE) / 2,
+                        pos.renderY + height + SE_Y_OFFSET)
             }
         }
     }
 
+    private fun drawBar(color: Float, x: Float, y: Float, width: Float, height: Float) {
+        batch.setColor(color)
+        batch.draw(res.whiteTexel, x, y, width, height)
+    }
+
 }
\ No newline at end of file
@@ -1,28 +1,77 @@
 package com.symbol.game.ecs.system.enemy
 
+import com.badlogic.ashley.core.Engine
 import com.badlogic.ashley.core.Entity
+import com.badlogic.ashley.core.EntityListener
+import com.badlogic.ashley.core.EntitySystem
 import com.badlogic.ashley.core.Family
-import com.badlogic.ashley.systems.IteratingSystem
+import com.badlogic.ashley.utils.ImmutableArray
+import com.badlogic.gdx.math.Rectangle
+import com.badlogic.gdx.utils.IntArray
 import com.symbol.game.ecs.Mapper
-import com.symbol.game.ecs.component.enemy.EnemyComponent
+import com.symbol.game.ecs.component.enemy.DormantComponent
 import com.symbol.game.ecs.entity.Player
+import com.symbol.game.ecs.system.SpatialHashSystem
+import com.symbol.game.map.TILE_SIZE
 
-class EnemyActivationSystem(private val player: Player)
-    : IteratingSystem(Family.all(EnemyComponent::class.java).get()) {
-
-    override fun processEntity(entity: Entity?, deltaTime: Float) {
-        Mapper.ACTIVATION_MAPPER[entity]?.run {
-            if (activationRange != -1f) {
-                val playerBounds = Mapper.BOUNDING_BOX_MAPPER[player]
-                val enemyBounds = Mapper.BOUNDING_BOX_MAPPER[entity]
-                val x1 = playerBounds.rect.x + playerBounds.rect.width / 2
-                val x2 = enemyBounds.rect.x + enemyBounds.rect.width / 2
-                val y1 = playerBounds.rect.y + playerBounds.rect.height / 2
-                val y2 = enemyBounds.rect.y + enemyBounds.rect.height / 2
-                val sqdist = ((x1 - x2) * (x1 - x2)) + ((y1 - y2) * (y1 - y2))
-
-                if (sqdist <= activationRange * activationRange) active = true
-            } else active = true
+// only the dormant enemies the spatial hash finds around the player are checked
+class EnemyActivationSystem(private val player: Player) : EntitySystem() {
+
+    private lateinit var spatialHash: SpatialHashSystem
+    private lateinit var dormant: ImmutableArray<Entity>
+
+    // the largest activation range of any dormant enemy, starts over once they're all awake
+    private var wakeRange = 0f
+    private val wakeArea = Rectangle()
+    private val candidates = IntArray()
+
+    private val dormantListener = object : EntityListener {
+        override fun entityAdded(entity: Entity) {
+            wakeRange = maxOf(wakeRange, Mapper.ACTIVATION_MAPPER[entity].activationRange)
+        }
+        override fun entityRemoved(entity: Entity) {}
+    }
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        spatialHash = engine!!.getSystem(SpatialHashSystem::class.java)
+        val family = Family.all(DormantComponent::class.java).get()
+        dormant = engine.getEntitiesFor(family)
+        engine.addEntityListener(family, dormantListener)
+    }
+
+    override fun removedFromEngine(engine: Engine?) {
+        super.removedFromEngine(engine)
+        engine!!.removeEntityListener(dormantListener)
+    }
+
+    override fun update(dt: Float) {
+        if (dormant.size() == 0) {
+            wakeRange = 0f
+            return
+        }
+
+        val playerBounds = Mapper.BOUNDING_BOX_MAPPER[player].rect
+        val x1 = playerBounds.x + playerBounds.width / 2
+        val y1 = playerBounds.y + playerBounds.height / 2
+        // the hash was built earlier in the frame, the extra tile covers anything that moved since
+        val reach = wakeRange + TILE_SIZE
+        wakeArea.set(x1 - reach, y1 - reach, reach * 2, reach * 2)
+        // every enemy has health, so the health grid already knows where the dormant ones are
+        spatialHash.queryHealthUnsorted(wakeArea, candidates)
+
+        val entities = spatialHash.healthEntities
+        for (i in 0 until candidates.size) {
+            val entity = entities[candidates.items[i]]
+            if (Mapper.DORMANT_MAPPER[entity] == null) continue
+
+            val activationRange = Mapper.ACTIVATION_MAPPER[entity].activationRange
+            val enemyBounds = Mapper.BOUNDING_BOX_MAPPER[entity].rect
+            val x2 = enemyBounds.x + enemyBounds.width / 2
+            val y2 = enemyBounds.y + enemyBounds.height / 2
+            val sqdist = ((x1 - x2) * (x1 - x2)) + ((y1 - y2) * (y1 - y2))
+
+            if (sqdist <= activationRange * activationRange) entity.remove(DormantComponent::class.java)
         }
     }
 
@@ -1,31 +1,39 @@
 package com.symbol.game.ecs.system.enemy
 
+import com.badlogic.ashley.core.Engine
 import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.core.PooledEngine
 import com.badlogic.ashley.systems.IteratingSystem
-import com.badlogic.gdx.graphics.g2d.TextureRegion
+import com.badlogic.ashley.utils.ImmutableArray
 import com.badlogic.gdx.math.Intersector
 import com.badlogic.gdx.math.MathUtils
 import com.badlogic.gdx.math.MathUtils.*
 import com.badlogic.gdx.math.Rectangle
+import com.badlogic.gdx.utils.Array
+import com.symbol.game.ecs.Archetypes
 import com.symbol.game.ecs.EntityBuilder
+import com.symbol.game.ecs.EntityTemplate
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.component.DirectionComponent
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.ProjectileMovementType
+import com.symbol.game.ecs.component.RemoveComponent
 import com.symbol.game.ecs.component.enemy.ActivationComponent
 import com.symbol.game.ecs.component.enemy.AttackComponent
+import com.symbol.game.ecs.component.enemy.DormantComponent
 import com.symbol.game.ecs.component.enemy.EnemyComponent
+import com.symbol.game.ecs.component.enemy.ExplodeComponent
+import com.symbol.game.ecs.component.enemy.TrapComponent
 import com.symbol.game.ecs.entity.EnemyAttackType
+import com.symbol.game.ecs.entity.EnemyType
 import com.symbol.game.ecs.entity.Player
 import com.symbol.game.ecs.system.DIAGONAL_PROJECTILE_SCALING
 import com.symbol.game.effects.particle.DEFAULT_INTESITY
 import com.symbol.game.effects.particle.DEFAULT_LIFETIME
 import com.symbol.game.effects.particle.ParticleSpawner
 import com.symbol.game.map.camera.CameraShake
-import com.symbol.game.util.Data
 import com.symbol.game.util.Direction
-import com.symbol.game.util.Resources
 import kotlin.math.abs
 
 private const val CAMERA_SHAKE_POWER = 3f
@@ -33,19 +41,50 @@ private const val CAMERA_SHAKE_DURATION = 0.7f
 
 private const val TRAP_EXPLODE_TIME = 2f
 
-class EnemyAttackSystem(private val player: Player,
-                        private val res: Resources,
-                        private val data: Data)
-    : IteratingSystem(Family.all(EnemyComponent::class.java).get()) {
+private const val MAX_VOLLEY_SIZE = 4
+
+class EnemyAttackSystem(private val player: Player)
+    : IteratingSystem(Family.all(EnemyComponent::class.java).exclude(DormantComponent::class.java,
+        FrozenComponent::class.java).get()) {
 
     private var mapWidth = 0f
 
+    // dormant enemies can still be shot from outside their activation range
+    private lateinit var dormantExplosives: ImmutableArray<Entity>
+    private lateinit var builder: EntityBuilder
+
+    private val volley = Array<Entity>(false, MAX_VOLLEY_SIZE)
+    private val volleyPositions = FloatArray(MAX_VOLLEY_SIZE * 2)
+    private val volleyVelocities = FloatArray(MAX_VOLLEY_SIZE * 3)
+    private var volleySize = 0
+
+    // the enemy whose projectiles are being spawned, picks the projectile template
+    private var enemyType = EnemyType.None
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        dormantExplosives = engine!!.getEntitiesFor(Family.all(EnemyComponent::class.java, DormantComponent::class.java)
+                .one(ExplodeComponent::class.java, TrapComponent::class.java).exclude(FrozenComponent::class.java).get())
+        builder = EntityBuilder.instance(engine as PooledEngine)
+    }
+
     fun setMapData(mapWidth: Float) {
         this.mapWidth = mapWidth
     }
 
+    override fun update(dt: Float) {
+        super.update(dt)
+        for (i in 0 until dormantExplosives.size()) {
+            val entity = dormantExplosives[i]
+            enemyType = Mapper.ENEMY_MAPPER[entity].enemyType
+            explode(entity, Mapper.ATTACK_MAPPER[entity], Mapper.DIR_MAPPER[entity],
+                    Mapper.BOUNDING_BOX_MAPPER[entity].rect, Mapper.REMOVE_MAPPER[entity], dt)
+        }
+    }
+
     override fun processEntity(entity: Entity?, dt: Float) {
         val enemyComponent = Mapper.ENEMY_MAPPER[entity]
+        enemyType = enemyComponent.enemyType
         val activation = Mapper.ACTIVATION_MAPPER[entity]
         val attack = Mapper.ATTACK_MAPPER[entity]
         val remove = Mapper.REMOVE_MAPPER[entity]
@@ -58,59 +97,45 @@ class EnemyAttackSystem(private val player: Player,
             remove.shouldRemove = true
 
             val color = Mapper.COLOR_MAPPER[entity]
-            ParticleSpawner.spawn(res, color.hex!!, DEFAULT_LIFETIME, (DEFAULT_INTESITY + attack.damage) * 2,
+            ParticleSpawner.spawn(color.packed, DEFAULT_LIFETIME, (DEFAULT_INTESITY + attack.damage) * 2,
                     bounds.x + bounds.width / 2, bounds.y + bounds.height / 2)
             return
         }
 
-        if (activation.active) {
-            if (enemyComponent.attackType == EnemyAttackType.ShootAndQuake) {
-                Mapper.GRAVITY_MAPPER[entity].run {
-                    if (onGround) {
-                        CameraShake.shakeFor(CAMERA_SHAKE_POWER, CAMERA_SHAKE_DURATION)
-                    }
-                }
-            }
-            if (attack.canAttack) {
-                when (enemyComponent.attackType) {
-                    EnemyAttackType.None -> {}
-                    EnemyAttackType.ShootOne -> shootOne(attack, dir, bounds)
-                    EnemyAttackType.ShootTwoHorizontal -> shootTwoHorizontal(attack, dir, bounds)
-                    EnemyAttackType.ShootTwoVertical -> shootTwoVertical(attack, dir, bounds)
-                    EnemyAttackType.ShootFour -> shootFour(attack, dir, bounds)
-                    EnemyAttackType.ShootFourDiagonal -> shootFourDiagonal(attack, dir, bounds)
-                    EnemyAttackType.ShootEight -> shootEight(attack, dir, bounds)
-                    EnemyAttackType.ShootAtPlayer -> shootAtPlayer(attack, activation, dir, bounds, playerBounds)
-                    EnemyAttackType.SprayThree -> sprayThree(attack, bounds)
-                    EnemyAttackType.ShootAndQuake -> shootAtPlayer(attack, activation, dir, bounds, playerBounds)
-                    EnemyAttackType.Random -> random(attack, bounds, dir)
-                    EnemyAttackType.ArcTwo -> arcTwo(attack, bounds, dir)
-                    EnemyAttackType.HorizontalWave -> horizontalWave(attack, bounds, dir)
-                    EnemyAttackType.VerticalWave -> verticalWave(attack, bounds, dir)
-                    EnemyAttackType.TwoHorizontalWave -> twoHorizontalWave(attack, bounds, dir)
-                    EnemyAttackType.TwoVerticalWave -> twoVerticalWave(attack, bounds, dir)
-                    EnemyAttackType.FourWave -> fourWave(attack, bounds, dir)
-                    EnemyAttackType.ShootBoomerang -> shootBoomerang(attack, bounds, dir)
-                    EnemyAttackType.ShootHoming -> shootHoming(attack, bounds, dir)
+        if (enemyComponent.attackType == EnemyAttackType.ShootAndQuake) {
+            Mapper.GRAVITY_MAPPER[entity].run {
+                if (onGround) {
+                    CameraShake.shakeFor(CAMERA_SHAKE_POWER, CAMERA_SHAKE_DURATION)
                 }
-                attack.canAttack = false
             }
         }
-
-        if (Mapper.EXPLODE_MAPPER[entity] != null) {
-            explodeOnDeath(entity, attack, dir, bounds)
-        }
-
-        Mapper.TRAP_MAPPER[entity]?.run {
-            if (countdown) {
-                timer += dt
-                if (timer >= TRAP_EXPLODE_TIME) {
-                    remove.shouldRemove = true
-                    if (hits != 3) explodeOnDeath(entity, attack, dir, bounds)
-                }
+        if (attack.canAttack) {
+            when (enemyComponent.attackType) {
+                EnemyAttackType.None -> {}
+                EnemyAttackType.ShootOne -> shootOne(attack, dir, bounds)
+                EnemyAttackType.ShootTwoHorizontal -> shootTwoHorizontal(attack, dir, bounds)
+                EnemyAttackType.ShootTwoVertical -> shootTwoVertical(attack, dir, bounds)
+                EnemyAttackType.ShootFour -> shootFour(attack, dir, bounds)
+                EnemyAttackType.ShootFourDiagonal -> shootFourDiagonal(attack, dir, bounds)
+                EnemyAttackType.ShootEight -> shootEight(attack, dir, bounds)
+                EnemyAttackType.ShootAtPlayer -> shootAtPlayer(attack, activation, dir, bounds, playerBounds)
+                EnemyAttackType.SprayThree -> sprayThree(attack, bounds)
+                EnemyAttackType.ShootAndQuake -> shootAtPlayer(attack, activation, dir, bounds, playerBounds)
+                EnemyAttackType.Random -> random(attack, bounds, dir)
+                EnemyAttackType.ArcTwo -> arcTwo(attack, bounds, dir)
+                EnemyAttackType.HorizontalWave -> horizontalWave(attack, bounds, dir)
+                EnemyAttackType.VerticalWave -> verticalWave(attack, bounds, dir)
+                EnemyAttackType.TwoHorizontalWave -> twoHorizontalWave(attack, bounds, dir)
+                EnemyAttackType.TwoVerticalWave -> twoVerticalWave(attack, bounds, dir)
+                EnemyAttackType.FourWave -> fourWave(attack, bounds, dir)
+                EnemyAttackType.ShootBoomerang -> shootBoomerang(attack, bounds, dir)
+                EnemyAttackType.ShootHoming -> shootHoming(attack, bounds, dir)
             }
+            attack.canAttack = false
         }
 
+        explode(entity, attack, dir, bounds, remove, dt)
+
         if (!attack.canAttack) {
             attack.timer += dt
             if (attack.timer >= attack.attackRate) {
@@ -122,21 +147,22 @@ class EnemyAttackSystem(private val player: Player,
 
     private fun shootOne(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle,
                          movementType: ProjectileMovementType = ProjectileMovementType.Normal) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         createProjectile(attackComp, dir, bounds,
-                if (dir.facingRight) attackComp.projectileSpeed else -attackComp.projectileSpeed, 0f, texture, movementType)
+                if (dir.facingRight) attackComp.projectileSpeed else -attackComp.projectileSpeed, 0f, movementType)
     }
 
     private fun shootTwoHorizontal(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-        createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed, 0f, texture)
-        createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed, 0f, texture)
+        beginVolley()
+        addToVolley(attackComp.projectileSpeed, 0f)
+        addToVolley(-attackComp.projectileSpeed, 0f)
+        createVolley(attackComp, dir, bounds)
     }
 
     private fun shootTwoVertical(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-        createProjectile(attackComp, dir, bounds, 0f, attackComp.projectileSpeed, texture)
-        createProjectile(attackComp, dir, bounds, 0f, -attackComp.projectileSpeed, texture)
+        beginVolley()
+        addToVolley(0f, attackComp.projectileSpeed)
+        addToVolley(0f, -attackComp.projectileSpeed)
+        createVolley(attackComp, dir, bounds)
     }
 
     private fun shootFour(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
@@ -145,15 +171,13 @@ class EnemyAttackSystem(private val player: Player,
     }
 
     private fun shootFourDiagonal(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-        createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING,
-                attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture)
-        createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING,
-                attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture)
-        createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING,
-                -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture)
-        createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING,
-                -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture)
+        val diagonal = attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING
+        beginVolley()
+        addToVolley(-diagonal, diagonal)
+        addToVolley(diagonal, diagonal)
+        addToVolley(-diagonal, -diagonal)
+        addToVolley(diagonal, -diagonal)
+        createVolley(attackComp, dir, bounds)
     }
 
     private fun shootEight(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
@@ -163,8 +187,6 @@ class EnemyAttackSystem(private val player: Player,
 
     private fun shootAtPlayer(attackComp: AttackComponent, activation: ActivationComponent,
                               dir: DirectionComponent, bounds: Rectangle, playerBounds: Rectangle) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-
         val xCenter = bounds.x + bounds.width / 2
         val yCenter = bounds.y + bounds.height / 2
         val px = playerBounds.x + playerBounds.width / 2
@@ -176,78 +198,92 @@ class EnemyAttackSystem(private val player: Player,
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(PI / 8f) * radius, yCenter + sin(PI / 8f) * radius,
                     xCenter + cos(-PI / 8f) * radius, yCenter + sin(-PI / 8f) * radius) ->
-                createProjectile(attackComp, dir, bounds, speed, 0f, texture)
+                createProjectile(attackComp, dir, bounds, speed, 0f)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(PI / 8f) * radius, yCenter + sin(PI / 8f) * radius,
                     xCenter + cos(3 * PI / 8f) * radius, yCenter + sin(3 * PI / 8f) * radius) ->
                 createProjectile(attackComp, dir, bounds, speed * DIAGONAL_PROJECTILE_SCALING,
-                    speed * DIAGONAL_PROJECTILE_SCALING, texture)
+                    speed * DIAGONAL_PROJECTILE_SCALING)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(3 * PI / 8f) * radius, yCenter + sin(3 * PI / 8f) * radius,
                     xCenter + cos(5 * PI / 8f) * radius, yCenter + sin(5 * PI / 8f) * radius) ->
-                createProjectile(attackComp, dir, bounds, 0f, speed, texture)
+                createProjectile(attackComp, dir, bounds, 0f, speed)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(5 * PI / 8f) * radius, yCenter + sin(5 * PI / 8f) * radius,
                     xCenter + cos(7 * PI / 8f) * radius, yCenter + sin(7 * PI / 8f) * radius) ->
                 createProjectile(attackComp, dir, bounds, -speed * DIAGONAL_PROJECTILE_SCALING,
-                    speed * DIAGONAL_PROJECTILE_SCALING, texture)
+                    speed * DIAGONAL_PROJECTILE_SCALING)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(7 * PI / 8f) * radius, yCenter + sin(7 * PI / 8f) * radius,
                     xCenter + cos(9 * PI / 8f) * radius, yCenter + sin(9 * PI / 8f) * radius) ->
-                createProjectile(attackComp, dir, bounds, -speed, 0f, texture)
+                createProjectile(attackComp, dir, bounds, -speed, 0f)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(9 * PI / 8f) * radius, yCenter + sin(9 * PI / 8f) * radius,
                     xCenter + cos(11 * PI / 8f) * radius, yCenter + sin(11 * PI / 8f) * radius) ->
                 createProjectile(attackComp, dir, bounds, -speed * DIAGONAL_PROJECTILE_SCALING,
-                    -speed * DIAGONAL_PROJECTILE_SCALING, texture)
+                    -speed * DIAGONAL_PROJECTILE_SCALING)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(11 * PI / 8f) * radius, yCenter + sin(11 * PI / 8f) * radius,
                     xCenter + cos(13 * PI / 8f) * radius, yCenter + sin(13 * PI / 8f) * radius) ->
-                createProjectile(attackComp, dir, bounds, 0f, -speed, texture)
+                createProjectile(attackComp, dir, bounds, 0f, -speed)
             Intersector.isPointInTriangle(px, py, xCenter, yCenter,
                     xCenter + cos(13 * PI / 8f) * radius, yCenter + sin(13 * PI / 8f) * radius,
                     xCenter + cos(-PI / 8f) * radius, yCenter + sin(-PI / 8f) * radius) ->
                 createProjectile(attackComp, dir, bounds, speed * DIAGONAL_PROJECTILE_SCALING,
-                    -speed * DIAGONAL_PROJECTILE_SCALING, texture)
+                    -speed * DIAGONAL_PROJECTILE_SCALING)
         }
     }
 
     private fun sprayThree(attackComp: AttackComponent, bounds: Rectangle) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-        createGravityProjectile(attackComp, bounds, 0f, attackComp.projectileSpeed, texture)
-        createGravityProjectile(attackComp, bounds, -attackComp.projectileSpeed / 4, attackComp.projectileSpeed, texture)
-        createGravityProjectile(attackComp, bounds, attackComp.projectileSpeed / 4, attackComp.projectileSpeed, texture)
+        createGravityProjectile(attackComp, bounds, 0f, attackComp.projectileSpeed)
+        createGravityProjectile(attackComp, bounds, -attackComp.projectileSpeed / 4, attackComp.projectileSpeed)
+        createGravityProjectile(attackComp, bounds, attackComp.projectileSpeed / 4, attackComp.projectileSpeed)
     }
 
     private fun random(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
         val action = MathUtils.random(3)
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         when (action) {
             0 -> {
                 dir.facingRight = true
-                createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed, 0f, texture)
+                createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed, 0f)
             }
             1 -> {
                 dir.facingRight = false
-                createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed, 0f, texture)
+                createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed, 0f)
             }
             2 -> {
-                createProjectile(attackComp, dir, bounds, 0f, attackComp.projectileSpeed, texture)
+                createProjectile(attackComp, dir, bounds, 0f, attackComp.projectileSpeed)
             }
             3 -> {
-                createProjectile(attackComp, dir, bounds, 0f, -attackComp.projectileSpeed, texture)
+                createProjectile(attackComp, dir, bounds, 0f, -attackComp.projectileSpeed)
             }
         }
     }
 
     private fun arcTwo(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         val initialDx = if (dir.facingRight) -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING
                             else attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING
         createProjectile(attackComp, dir, bounds, initialDx,
-                attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture, ProjectileMovementType.Arc)
+                attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, ProjectileMovementType.Arc)
         createProjectile(attackComp, dir, bounds, initialDx,
-                -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, texture, ProjectileMovementType.Arc)
+                -attackComp.projectileSpeed * DIAGONAL_PROJECTILE_SCALING, ProjectileMovementType.Arc)
+    }
+
+    private fun explode(entity: Entity?, attack: AttackComponent, dir: DirectionComponent, bounds: Rectangle,
+                        remove: RemoveComponent, dt: Float) {
+        if (Mapper.EXPLODE_MAPPER[entity] != null) {
+            explodeOnDeath(entity, attack, dir, bounds)
+        }
+
+        Mapper.TRAP_MAPPER[entity]?.run {
+            if (countdown) {
+                timer += dt
+                if (timer >= TRAP_EXPLODE_TIME) {
+                    remove.shouldRemove = true
+                    if (hits != 3) explodeOnDeath(entity, attack, dir, bounds)
+                }
+            }
+        }
     }
 
     private fun explodeOnDeath(entity: Entity?, attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
@@ -255,37 +291,30 @@ class EnemyAttackSystem(private val player: Player,
     }
 
     private fun horizontalWave(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         val proj = createProjectile(attackComp, dir, bounds, if (dir.facingRight) attackComp.projectileSpeed else -attackComp.projectileSpeed,
-                0f, texture, ProjectileMovementType.Wave)
+                0f, ProjectileMovementType.Wave)
         Mapper.PROJ_MAPPER[proj].run { waveDir = Direction.Right }
     }
 
     private fun verticalWave(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         val proj = createProjectile(attackComp, dir, bounds, 0f,
-                if (MathUtils.randomBoolean()) attackComp.projectileSpeed else -attackComp.projectileSpeed,
-                texture, ProjectileMovementType.Wave)
+                if (MathUtils.randomBoolean()) attackComp.projectileSpeed else -attackComp.projectileSpeed, ProjectileMovementType.Wave)
         val projComp = Mapper.PROJ_MAPPER[proj]
         projComp.waveDir = Direction.Up
     }
 
     private fun twoHorizontalWave(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
         val projLeft = createProjectile(attackComp, dir, bounds, -attackComp.projectileSpeed,
-                0f, texture, ProjectileMovementType.Wave)
+                0f, ProjectileMovementType.Wave)
         val projRight = createProjectile(attackComp, dir, bounds, attackComp.projectileSpeed,
-                0f, texture, ProjectileMovementType.Wave)
+                0f, ProjectileMovementType.Wave)
         Mapper.PROJ_MAPPER[projLeft].run { waveDir = Direction.Left }
         Mapper.PROJ_MAPPER[projRight].run { waveDir = Direction.Right }
     }
 
     private fun twoVerticalWave(attackComp: AttackComponent, bounds: Rectangle, dir: DirectionComponent) {
-        val texture = res.getTexture(attackComp.attackTexture!!)!!
-        val projTop = createProjectile(attackComp, dir, bounds, 0f, attackComp.projectileSpeed,
-                texture, ProjectileMovementType.Wave)
-        val projBot = createProjectile(attackComp, dir, bounds, 0f, -attackComp.projectileSpeed,
-                texture, ProjectileMovementType.Wave)
+        val projTop = createProjectile(attackComp, dir, bounds, 0f, attackComp.projectileSpeed, ProjectileMovementType.Wave)
+        val projBot = createProjectile(attackComp, dir, bounds, 0f, -attackComp.projectileSpeed, ProjectileMovementType.Wave)
         Mapper.PROJ_MAPPER[projTop].run { waveDir = Direction.Up }
         Mapper.PROJ_MAPPER[projBot].run { waveDir = Direction.Down }
     }
@@ -304,43 +333,57 @@ class EnemyAttackSystem(private val player: Player,
     }
 
     private fun createProjectile(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle,
-                                 dx: Float = 0f, dy: Float = 0f, texture: TextureRegion,
+                                 dx: Float = 0f, dy: Float = 0f,
                                  movementType: ProjectileMovementType = ProjectileMovementType.Normal) : Entity? {
-        val bw = texture.regionWidth - 1
-        val bh = texture.regionHeight - 1
-        val originX = bounds.x + (bounds.width / 2) - (bw / 2)
-        val originY = bounds.y + (bounds.height / 2) - (bh / 2)
-
-        return EntityBuilder.instance(engine as PooledEngine)
-                .projectile(movementType = movementType,
-                        parentFacingRight = dir.facingRight,
-                        collidesWithTerrain = false, collidesWithProjectiles = attackComp.projectileDestroyable,
-                        textureStr = attackComp.attackTexture,
-                        damage = attackComp.damage, detonateTime = attackComp.attackDetonateTime, acceleration = attackComp.projectileAcceleration)
-                .color(data.getColor(attackComp.attackTexture!!)!!)
-                .position(originX, originY)
-                .velocity(dx = dx, dy = dy, speed = abs(if (dx != 0f) dx else dy))
-                .boundingBox(bw.toFloat(), bh.toFloat())
-                .texture(texture, attackComp.attackTexture)
-                .direction(yFlip = true).remove().build()
+        val template = Archetypes.enemyProjectile(enemyType, attackComp)
+        val proj = template.spawn(builder,
+                originX(bounds, template), originY(bounds, template), dx, dy, abs(if (dx != 0f) dx else dy))
+        Mapper.PROJ_MAPPER[proj].run {
+            this.movementType = movementType
+            parentFacingRight = dir.facingRight
+        }
+        return proj
     }
 
     private fun createGravityProjectile(attackComp: AttackComponent, bounds: Rectangle,
-                                        dx: Float, dy: Float, texture: TextureRegion) : Entity? {
-        val bw = texture.regionWidth - 1
-        val bh = texture.regionHeight - 1
-        val originX = bounds.x + (bounds.width / 2) - (bw / 2)
-        val originY = bounds.y + (bounds.height / 2) - (bh / 2)
-
-        return EntityBuilder.instance(engine as PooledEngine)
-                .projectile(collidesWithTerrain = false, collidesWithProjectiles = attackComp.projectileDestroyable,
-                        textureStr = attackComp.attackTexture, damage = attackComp.damage)
-                .color(data.getColor(attackComp.attackTexture!!)!!)
-                .position(originX, originY)
-                .velocity(dx = dx, dy = dy, speed = abs(if (dx != 0f) dx else dy))
-                .boundingBox(bw.toFloat(), bh.toFloat())
-                .texture(texture, attackComp.attackTexture)
-                .direction(yFlip = true).gravity(collidable = false).remove().build()
+                                        dx: Float, dy: Float) : Entity? {
+        val template = Archetypes.enemyProjectile(enemyType, attackComp, gravity = true)
+        return template.spawn(builder,
+                originX(bounds, template), originY(bounds, template), dx, dy, abs(if (dx != 0f) dx else dy))
+    }
+
+    private fun beginVolley() {
+        volleySize = 0
+    }
+
+    private fun addToVolley(dx: Float, dy: Float) {
+        volleyVelocities[volleySize * 3] = dx
+        volleyVelocities[volleySize * 3 + 1] = dy
+        volleyVelocities[volleySize * 3 + 2] = abs(if (dx != 0f) dx else dy)
+        volleySize++
     }
 
+    // every projectile of a volley leaves from the same origin
+    private fun createVolley(attackComp: AttackComponent, dir: DirectionComponent, bounds: Rectangle) {
+        val template = Archetypes.enemyProjectile(enemyType, attackComp)
+        val originX = originX(bounds, template)
+        val originY = originY(bounds, template)
+        for (i in 0 until volleySize) {
+            volleyPositions[i * 2] = originX
+            volleyPositions[i * 2 + 1] = originY
+        }
+
+        volley.clear()
+        template.spawn(builder, volleySize, volleyPositions, volleyVelocities, volley)
+        for (proj in volley) Mapper.PROJ_MAPPER[proj].parentFacingRight = dir.facingRight
+        volley.clear()
+    }
+
+    // centred on the enemy, rounded the same way as the integer bounding box
+    private fun originX(bounds: Rectangle, template: EntityTemplate) : Float =
+            bounds.x + (bounds.width / 2) - (template.width.toInt() / 2)
+
+    private fun originY(bounds: Rectangle, template: EntityTemplate) : Float =
+            bounds.y + (bounds.height / 2) - (template.height.toInt() / 2)
+
 }
\ No newline at end of file
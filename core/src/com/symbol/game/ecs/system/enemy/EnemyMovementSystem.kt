@@ -1,18 +1,22 @@
 package com.symbol.game.ecs.system.enemy
 
+import com.badlogic.ashley.core.Engine
 import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.Family
 import com.badlogic.ashley.systems.IteratingSystem
+import com.badlogic.ashley.utils.ImmutableArray
 import com.badlogic.gdx.math.MathUtils
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.component.DirectionComponent
+import com.symbol.game.ecs.component.FrozenComponent
 import com.symbol.game.ecs.component.GravityComponent
 import com.symbol.game.ecs.component.PositionComponent
 import com.symbol.game.ecs.component.VelocityComponent
+import com.symbol.game.ecs.component.enemy.CorporealComponent
+import com.symbol.game.ecs.component.enemy.DormantComponent
 import com.symbol.game.ecs.component.enemy.EnemyComponent
 import com.symbol.game.ecs.entity.EnemyMovementType
 import com.symbol.game.ecs.entity.Player
-import com.symbol.game.util.INCORPOREAL
 import com.symbol.game.util.Resources
 
 private const val MOVEMENT_FREQUENCY = 0.7f
@@ -20,7 +24,22 @@ private const val JUMP_FREQUENCY = 1.2f
 
 class EnemyMovementSystem(private val player: Player,
                           private val res: Resources)
-    : IteratingSystem(Family.all(EnemyComponent::class.java).get()) {
+    : IteratingSystem(Family.all(EnemyComponent::class.java).exclude(DormantComponent::class.java,
+        FrozenComponent::class.java).get()) {
+
+    // enemies flicker between corporeal and not whether they're dormant or not
+    private lateinit var corporealEnemies: ImmutableArray<Entity>
+
+    override fun addedToEngine(engine: Engine?) {
+        super.addedToEngine(engine)
+        corporealEnemies = engine!!.getEntitiesFor(Family.all(EnemyComponent::class.java, CorporealComponent::class.java)
+                .exclude(FrozenComponent::class.java).get())
+    }
+
+    override fun update(dt: Float) {
+        for (i in 0 until corporealEnemies.size()) updateCorporeal(corporealEnemies[i], dt)
+        super.update(dt)
+    }
 
     override fun processEntity(entity: Entity?, dt: Float) {
         val enemyComponent = Mapper.ENEMY_MAPPER[entity]
@@ -30,7 +49,26 @@ class EnemyMovementSystem(private val player: Player,
         val gravity = Mapper.GRAVITY_MAPPER[entity]
         val jump = Mapper.JUMP_MAPPER[entity]
 
-        Mapper.CORPOREAL_MAPPER[entity]?.run {
+        if (gravity != null) {
+            if (gravity.onGround && jump != null
+                    && enemyComponent.movementType != EnemyMovementType.RandomWithJump) {
+                velocity.dy = jump.impulse
+            }
+        }
+        when (enemyComponent.movementType) {
+            EnemyMovementType.None -> return
+            EnemyMovementType.BackAndForth -> backAndForth(entity, position, velocity, dirComponent, gravity)
+            EnemyMovementType.Charge -> charge(position, velocity)
+            EnemyMovementType.Random -> random(entity, dt, position, velocity, gravity)
+            EnemyMovementType.RandomWithJump -> randomWithJump(entity, dt, position, velocity, gravity)
+            EnemyMovementType.Orbit -> orbit(entity, enemyComponent)
+            EnemyMovementType.TeleportTriangle -> teleportTriangle(entity, dt, position)
+            EnemyMovementType.TeleportSquare -> teleportSquare(entity, dt, position)
+        }
+    }
+
+    private fun updateCorporeal(entity: Entity, dt: Float) {
+        Mapper.CORPOREAL_MAPPER[entity].run {
             if (incorporealTime != 0f) {
                 timer += dt
                 if (timer >= incorporealTime) {
@@ -38,7 +76,7 @@ class EnemyMovementSystem(private val player: Player,
 
                     if (!corporeal) {
                         Mapper.TEXTURE_MAPPER[entity].run {
-                            texture = res.getTexture(textureStr + INCORPOREAL) ?: texture
+                            texture = variants(res).incorporeal ?: texture
                         }
                     }
 
@@ -46,25 +84,6 @@ class EnemyMovementSystem(private val player: Player,
                 }
             }
         }
-
-        if (Mapper.ACTIVATION_MAPPER[entity].active) {
-            if (gravity != null) {
-                if (gravity.onGround && jump != null
-                        && enemyComponent.movementType != EnemyMovementType.RandomWithJump) {
-                    velocity.dy = jump.impulse
-                }
-            }
-            when (enemyComponent.movementType) {
-                EnemyMovementType.None -> return
-                EnemyMovementType.BackAndForth -> backAndForth(entity, position, velocity, dirComponent, gravity)
-                EnemyMovementType.Charge -> charge(position, velocity)
-                EnemyMovementType.Random -> random(entity, dt, position, velocity, gravity)
-                EnemyMovementType.RandomWithJump -> randomWithJump(entity, dt, position, velocity, gravity)
-                EnemyMovementType.Orbit -> orbit(entity, enemyComponent)
-                EnemyMovementType.TeleportTriangle -> teleportTriangle(entity, dt, position)
-                EnemyMovementType.TeleportSquare -> teleportSquare(entity, dt, position)
-            }
-        }
     }
 
     private fun backAndForth(entity: Entity?, p: PositionComponent, v: VelocityComponent, dir: DirectionComponent, g: GravityComponent) {
@@ -151,10 +170,10 @@ class EnemyMovementSystem(private val player: Player,
         }
 
         when (teleport.pos) {
-            0 -> position.set(position.originX, position.originY)
-            1 -> position.set(position.originX + teleport.range / 2f,
+            0 -> position.teleport(position.originX, position.originY)
+            1 -> position.teleport(position.originX + teleport.range / 2f,
                     position.originY + MathUtils.sin(MathUtils.PI / 3f) * teleport.range)
-            2 -> position.set(position.originX + teleport.range, position.originY)
+            2 -> position.teleport(position.originX + teleport.range, position.originY)
         }
     }
 
@@ -170,10 +189,10 @@ class EnemyMovementSystem(private val player: Player,
         }
 
         when (teleport.pos) {
-            0 -> position.set(position.originX, position.originY)
-            1 -> position.set(position.originX, position.originY + teleport.range)
-            2 -> position.set(position.originX + teleport.range, position.originY + teleport.range)
-            3 -> position.set(position.originX + teleport.range, position.originY)
+            0 -> position.teleport(position.originX, position.originY)
+            1 -> position.teleport(position.originX, position.originY + teleport.range)
+            2 -> position.teleport(position.originX + teleport.range, position.originY + teleport.range)
+            3 -> position.teleport(position.originX + teleport.range, position.originY)
         }
     }
 
@@ -2,25 +2,86 @@ package com.symbol.game.effects.particle
 
 import com.badlogic.gdx.graphics.OrthographicCamera
 import com.badlogic.gdx.graphics.g2d.Batch
-import com.badlogic.gdx.utils.Array
-import com.badlogic.gdx.utils.Pool
+import com.badlogic.gdx.math.MathUtils
+import com.badlogic.gdx.math.RandomXS128
+import com.badlogic.gdx.math.Rectangle
+import com.badlogic.gdx.utils.TimeUtils
+import com.symbol.game.Config
+import com.symbol.game.map.TILE_SIZE
 import com.symbol.game.map.camera.CameraUtil
 import com.symbol.game.util.Resources
-import java.util.*
 
+const val DEFAULT_LIFETIME = 0.5f
+const val DEFAULT_INTESITY = 7
+
+const val DEFAULT_INITIAL_Z = 2f
+const val DEFAULT_VX_SCALING = 0.5f
+const val DEFAULT_VY_SCALING = 0.5f
+const val DEFAULT_VZ_SCALING = 0.7f
+const val DEFAULT_Z_NEG_VX_SCALING = 0.6f
+const val DEFAULT_Z_NEG_VY_SCALING = 0.6f
+const val DEFAULT_Z_NEG_VZ_SCALING = -0.5f
+const val DEFAULT_Z_POS_VZ_SCALING = 0.15f
+
+private const val INITIAL_CAPACITY = 256
+
+// bursts thin out to nothing one view width outside the camera
+private const val LOD_FALLOFF = 1f
+// bursts never shrink below this share however slow frames get
+private const val MIN_HEADROOM_SCALE = 0.25f
+private const val TARGET_FRAME_TIME = 1f / Config.FG_FPS
+private const val FRAME_TIME_SMOOTHING = 0.1f
+// a full budget frees an extra share of it at once so the eviction pass stays rare
+private const val EVICTION_SLACK = 0.125f
+// normal samples drawn once, nextGaussian is far too slow to call per particle
+private const val GAUSSIAN_TABLE_SIZE = 4096
+
+// particles live in parallel arrays, index i across every array is one particle
 object ParticleSpawner {
 
-    private val particles = Array<Particle>()
-    private val particlePool: Pool<Particle>
+    private val rand = RandomXS128()
+    private val gaussians = FloatArray(GAUSSIAN_TABLE_SIZE) { rand.nextGaussian().toFloat() }
+    private val viewBounds = Rectangle()
+    private var hasView = false
+
+    private var frameTime = TARGET_FRAME_TIME
+    private var lastRenderTime = 0L
+
+    private var size = 0
+    private var capacity = 0
+
+    var budget = Config.PARTICLE_BUDGET
+
+    val activeCount: Int get() = size
+    val pooledCount: Int get() = capacity - size
+    var evictedCount = 0
+        private set
+
+    private var x = FloatArray(0)
+    private var y = FloatArray(0)
+    private var z = FloatArray(0)
+    private var vx = FloatArray(0)
+    private var vy = FloatArray(0)
+    private var vz = FloatArray(0)
+    private var stateTime = FloatArray(0)
+    private var lifetime = FloatArray(0)
+
+    // copied from the spawning call so update and render never have to look anything up
+    private var zNegVxScale = FloatArray(0)
+    private var zNegVyScale = FloatArray(0)
+    private var zNegVzScale = FloatArray(0)
+    private var zPosVzScale = FloatArray(0)
+    private var colors = FloatArray(0)
+
+    private var scores = FloatArray(0)
+    private var selection = FloatArray(0)
 
     init {
-        val rand = Random()
-        particlePool = object : Pool<Particle>() {
-            override fun newObject(): Particle = Particle(rand)
-        }
+        ensureCapacity(INITIAL_CAPACITY)
     }
 
-    fun spawn(res: Resources, hex: String, lifetime: Float, intensity: Int, x: Float, y: Float,
+    // color is packed float bits, every particle is the white texel tinted with it
+    fun spawn(color: Float, lifetime: Float, intensity: Int, x: Float, y: Float,
               zi: Float = DEFAULT_INITIAL_Z,
               vxScale: Float = DEFAULT_VX_SCALING,
               vyScale: Float = DEFAULT_VY_SCALING,
@@ -29,38 +90,200 @@ object ParticleSpawner {
               zNegVyScale: Float = DEFAULT_Z_NEG_VY_SCALING,
               zNegVzScale: Float = DEFAULT_Z_NEG_VZ_SCALING,
               zPosVzScale: Float = DEFAULT_Z_POS_VZ_SCALING) {
-        repeat(intensity) {
-            val particle = particlePool.obtain().apply {
-                set(res, hex, lifetime)
-                initVectors(x, y, zi, vxScale, vyScale, vzScale,
-                        zNegVxScale, zNegVyScale, zNegVzScale, zPosVzScale)
-            }
-            particles.add(particle)
+        val count = minOf(scaledIntensity(intensity, x, y), budget)
+        if (count <= 0) return
+        if (size + count > budget) evict(minOf(size + count - budget + (budget * EVICTION_SLACK).toInt(), size))
+        ensureCapacity(size + count)
+
+        for (i in size until size + count) {
+            this.x[i] = x
+            this.y[i] = y
+            this.z[i] = zi
+            vx[i] = gaussians[rand.nextInt(GAUSSIAN_TABLE_SIZE)] * vxScale
+            vy[i] = gaussians[rand.nextInt(GAUSSIAN_TABLE_SIZE)] * vyScale
+            vz[i] = rand.nextFloat() * vzScale + zi
+            stateTime[i] = 0f
+            this.lifetime[i] = lifetime
+            this.zNegVxScale[i] = zNegVxScale
+            this.zNegVyScale[i] = zNegVyScale
+            this.zNegVzScale[i] = zNegVzScale
+            this.zPosVzScale[i] = zPosVzScale
+            colors[i] = color
         }
+        size += count
     }
 
     fun update(dt: Float) {
-        for (i in particles.size - 1 downTo 0) {
-            val particle = particles[i]
-            particle.update(dt)
-            if (particle.shouldRemove) {
-                particles.removeIndex(i)
-                particlePool.free(particle)
+        var i = 0
+        while (i < size) {
+            stateTime[i] += dt
+            if (stateTime[i] >= lifetime[i]) {
+                // the last particle fills the hole and gets updated on the next pass of the loop
+                removeIndex(i)
+                continue
+            }
+
+            x[i] += vx[i]
+            y[i] += vy[i]
+            z[i] += vz[i]
+
+            if (z[i] > 0) {
+                z[i] = 0f
+                vz[i] *= zNegVzScale[i]
+                vx[i] *= zNegVxScale[i]
+                vy[i] *= zNegVyScale[i]
             }
+            vz[i] += zPosVzScale[i]
+            i++
         }
     }
 
-    fun render(batch: Batch, cam: OrthographicCamera) {
-        particles.forEach {
-            if (CameraUtil.withinCamera(it.position.x, it.position.y, cam)) {
-                it.render(batch)
+    fun render(batch: Batch, cam: OrthographicCamera, res: Resources) {
+        // wall clock between renders, so a fixed simulation step doesn't hide slow frames
+        val now = TimeUtils.nanoTime()
+        if (lastRenderTime != 0L) {
+            val sample = minOf((now - lastRenderTime) / 1000000000f, TARGET_FRAME_TIME / MIN_HEADROOM_SCALE)
+            frameTime += (sample - frameTime) * FRAME_TIME_SMOOTHING
+        }
+        lastRenderTime = now
+
+        CameraUtil.getBounds(cam, viewBounds)
+        hasView = true
+        val minX = viewBounds.x - TILE_SIZE
+        val minY = viewBounds.y - TILE_SIZE
+        val maxX = viewBounds.x + viewBounds.width
+        val maxY = viewBounds.y + viewBounds.height
+
+        val texel = res.whiteTexel
+        val batchColor = batch.packedColor
+        for (i in 0 until size) {
+            if (x[i] >= minX && x[i] <= maxX && y[i] >= minY && y[i] <= maxY) {
+                batch.setColor(colors[i])
+                batch.draw(texel, x[i], y[i] - z[i])
             }
         }
+        batch.setColor(batchColor)
     }
 
     fun reset() {
-        particles.clear()
-        particlePool.clear()
+        size = 0
+        evictedCount = 0
+        hasView = false
+        frameTime = TARGET_FRAME_TIME
+        lastRenderTime = 0L
+    }
+
+    private fun scaledIntensity(intensity: Int, x: Float, y: Float) : Int {
+        var scale = MathUtils.clamp(TARGET_FRAME_TIME / frameTime, MIN_HEADROOM_SCALE, 1f)
+        if (hasView) scale *= 1 - minOf(distanceOutsideView(x, y) / (viewBounds.width * LOD_FALLOFF), 1f)
+        return MathUtils.round(intensity * scale)
+    }
+
+    private fun distanceOutsideView(x: Float, y: Float) : Float {
+        val dx = maxOf(viewBounds.x - x, x - viewBounds.x - viewBounds.width, 0f)
+        val dy = maxOf(viewBounds.y - y, y - viewBounds.y - viewBounds.height, 0f)
+        return maxOf(dx, dy)
+    }
+
+    // drops the lowest priority particles: the furthest off screen, then the closest to expiring
+    private fun evict(count: Int) {
+        if (count >= size) {
+            evictedCount += size
+            size = 0
+            return
+        }
+
+        for (i in 0 until size) {
+            var score = stateTime[i] / lifetime[i]
+            if (hasView) {
+                val distance = distanceOutsideView(x[i], y[i])
+                if (distance > 0) score += 1 + distance / viewBounds.width
+            }
+            scores[i] = score
+        }
+        System.arraycopy(scores, 0, selection, 0, size)
+        val threshold = select(selection, size, size - count)
+
+        // everything above the threshold goes, then ties until enough are gone
+        var remaining = count
+        for (pass in 0..1) {
+            var i = size - 1
+            while (i >= 0 && remaining > 0) {
+                if (scores[i] > threshold || (pass == 1 && scores[i] == threshold)) {
+                    removeIndex(i)
+                    scores[i] = scores[size]
+                    remaining--
+                }
+                i--
+            }
+        }
+        evictedCount += count
+    }
+
+    // k-th smallest of the first n values, partially reorders them
+    private fun select(values: FloatArray, n: Int, k: Int) : Float {
+        var lo = 0
+        var hi = n - 1
+        while (lo < hi) {
+            val pivot = values[(lo + hi) ushr 1]
+            var i = lo
+            var j = hi
+            while (i <= j) {
+                while (values[i] < pivot) i++
+                while (values[j] > pivot) j--
+                if (i <= j) {
+                    val tmp = values[i]
+                    values[i] = values[j]
+                    values[j] = tmp
+                    i++
+                    j--
+                }
+            }
+            when {
+                k <= j -> hi = j
+                k >= i -> lo = i
+                else -> return values[k]
+            }
+        }
+        return values[k]
+    }
+
+    private fun removeIndex(i: Int) {
+        val last = --size
+        x[i] = x[last]
+        y[i] = y[last]
+        z[i] = z[last]
+        vx[i] = vx[last]
+        vy[i] = vy[last]
+        vz[i] = vz[last]
+        stateTime[i] = stateTime[last]
+        lifetime[i] = lifetime[last]
+        zNegVxScale[i] = zNegVxScale[last]
+        zNegVyScale[i] = zNegVyScale[last]
+        zNegVzScale[i] = zNegVzScale[last]
+        zPosVzScale[i] = zPosVzScale[last]
+        colors[i] = colors[last]
+    }
+
+    private fun ensureCapacity(required: Int) {
+        if (required <= capacity) return
+        capacity = maxOf(required, capacity * 2)
+
+        x = x.copyOf(capacity)
+        y = y.copyOf(capacity)
+        z = z.copyOf(capacity)
+        vx = vx.copyOf(capacity)
+        vy = vy.copyOf(capacity)
+        vz = vz.copyOf(capacity)
+        stateTime = stateTime.copyOf(capacity)
+        lifetime = lifetime.copyOf(capacity)
+        zNegVxScale = zNegVxScale.copyOf(capacity)
+        zNegVyScale = zNegVyScale.copyOf(capacity)
+        zNegVzScale = zNegVzScale.copyOf(capacity)
+        zPosVzScale = zPosVzScale.copyOf(capacity)
+        colors = colors.copyOf(capacity)
+        scores = scores.copyOf(capacity)
+        selection = selection.copyOf(capacity)
     }
 
 }
\ No newline at end of file
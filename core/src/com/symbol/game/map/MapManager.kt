@@ -4,15 +4,19 @@ import com.badlogic.ashley.core.Entity
 import com.badlogic.ashley.core.PooledEngine
 import com.badlogic.gdx.graphics.OrthographicCamera
 import com.badlogic.gdx.graphics.g2d.Batch
-import com.badlogic.gdx.graphics.g2d.TextureRegion
+import com.badlogic.gdx.graphics.g2d.SpriteCache
 import com.badlogic.gdx.maps.MapLayer
 import com.badlogic.gdx.maps.objects.RectangleMapObject
 import com.badlogic.gdx.maps.tiled.TiledMap
 import com.badlogic.gdx.maps.tiled.TiledMapTileLayer
 import com.badlogic.gdx.maps.tiled.TmxMapLoader
+import com.badlogic.gdx.math.MathUtils
+import com.badlogic.gdx.math.Rectangle
 import com.badlogic.gdx.math.Vector2
 import com.badlogic.gdx.utils.Array
 import com.badlogic.gdx.utils.Disposable
+import com.badlogic.gdx.utils.IntArray
+import com.symbol.game.ecs.Archetypes
 import com.symbol.game.ecs.EntityFactory
 import com.symbol.game.ecs.Mapper
 import com.symbol.game.ecs.entity.EnemyType
@@ -27,6 +31,7 @@ const val TILE_SIZE = 8
 
 private const val DIR = "map/"
 private const val MAP_TAG = "map_"
+private const val CHUNK_SIZE = 16
 
 private const val PLAYER_SPAWN_LAYER = "player"
 private const val TILE_LAYER = "tile"
@@ -47,7 +52,12 @@ class MapManager(private val engine: PooledEngine,
     private val mapLoader = TmxMapLoader()
     private var tiledMap: TiledMap? = null
 
-    private val textureMap = Array<Array<TextureRegion>>()
+    private var tileCache: SpriteCache? = null
+    private var tileCacheDirty = false
+    private val chunkIds = IntArray()
+    private var chunkCols = 0
+    private var chunkRows = 0
+    private val viewBounds = Rectangle()
     private val tileLayer: TiledMapTileLayer by lazy {
         tiledMap!!.layers[TILE_LAYER] as TiledMapTileLayer
     }
@@ -85,8 +95,10 @@ class MapManager(private val engine: PooledEngine,
         dist1.toInt() - dist2.toInt()
     }
 
-    fun load(mapIndex: Int) {
-        tiledMap = mapLoader.load("$DIR$MAP_TAG$mapIndex.tmx")
+    fun load(mapIndex: Int) = load(mapLoader.load("$DIR$MAP_TAG$mapIndex.tmx"))
+
+    fun load(map: TiledMap) {
+        tiledMap = map
 
         enemyLayer = tiledMap!!.layers[ENEMY_LAYER]
         mapEntityLayer = tiledMap!!.layers[MAP_ENTITY_LAYER]
@@ -95,32 +107,52 @@ class MapManager(private val engine: PooledEngine,
         playerSpawnPosition.set(spawn.x, spawn.y)
 
         loadMapObjects()
+        Archetypes.load(res, data)
         loadEnemies()
         loadMapEntities()
 
+        // baked on the first render so maps can load without a GL context
+        tileCacheDirty = true
+
+        loadHelpPages()
+    }
+
+    private fun loadTileCache() {
         val tileset = res.getTexture("tileset")!!.split(TILE_SIZE, TILE_SIZE)
 
+        var numTiles = 0
         for (row in 0 until mapHeight) {
-            val inner = Array<TextureRegion>()
             for (col in 0 until mapWidth) {
-                val cell = tileLayer.getCell(col, row)
+                if (tileLayer.getCell(col, row) != null) numTiles++
+            }
+        }
 
-                if (cell != null) {
-                    val id = cell.tile.id - 1
+        tileCache?.dispose()
+        val cache = SpriteCache(maxOf(numTiles, 1), false)
+        tileCache = cache
 
-                    val x = id % tileset[0].size
-                    val y = id / tileset[0].size
+        chunkCols = MathUtils.ceil(mapWidth.toFloat() / CHUNK_SIZE)
+        chunkRows = MathUtils.ceil(mapHeight.toFloat() / CHUNK_SIZE)
+        chunkIds.clear()
 
-                    inner.add(tileset[y][x])
-                }
-                else {
-                    inner.add(null)
+        for (chunkRow in 0 until chunkRows) {
+            for (chunkCol in 0 until chunkCols) {
+                cache.beginCache()
+                for (row in chunkRow * CHUNK_SIZE until minOf((chunkRow + 1) * CHUNK_SIZE, mapHeight)) {
+                    for (col in chunkCol * CHUNK_SIZE until minOf((chunkCol + 1) * CHUNK_SIZE, mapWidth)) {
+                        val cell = tileLayer.getCell(col, row) ?: continue
+                        val id = cell.tile.id - 1
+
+                        val x = id % tileset[0].size
+                        val y = id / tileset[0].size
+
+                        cache.add(tileset[y][x], (col * TILE_SIZE).toFloat(), (row * TILE_SIZE).toFloat())
+                    }
                 }
+                chunkIds.add(cache.endCache())
             }
-            textureMap.add(inner)
         }
-
-        loadHelpPages()
+        tileCacheDirty = false
     }
 
     private fun loadMapObjects() {
@@ -150,7 +182,7 @@ class MapManager(private val engine: PooledEngine,
                 val enemyObjectType = if (typeProp == null) EnemyType.None else EnemyType.getType(typeProp.toString())!!
                 val facingRight = if (facingRightProp == null) true else facingRightProp as Boolean
 
-                EntityFactory.createEnemy(engine, res, data, enemyObjectType, enemyObjectRect, facingRight)
+                EntityFactory.createEnemy(engine, enemyObjectType, enemyObjectRect, facingRight)
             }
         }
     }
@@ -237,24 +269,34 @@ class MapManager(private val engine: PooledEngine,
     fun containsInvertSwitch() : Boolean =
             engine.entities.find { Mapper.INVERT_SWITCH_MAPPER[it] != null } != null
 
-    fun render(batch: Batch, cam: OrthographicCamera) {
-        for (row in 0 until mapHeight) {
-            for (col in 0 until mapWidth) {
-                val texture = textureMap[row][col]
-                val x = col * TILE_SIZE
-                val y = row * TILE_SIZE
-
-                if (CameraUtil.withinCamera(x.toFloat(), y.toFloat(), cam)) {
-                    if (texture != null) {
-                        batch.draw(texture, x.toFloat(), y.toFloat())
-                    }
-                }
+    fun render(batch: Batch, cam: OrthographicCamera, inverted: Boolean) {
+        if (tileCacheDirty) loadTileCache()
+        val cache = tileCache ?: return
+
+        CameraUtil.getBounds(cam, viewBounds)
+        val chunkPixels = CHUNK_SIZE * TILE_SIZE
+        val minCol = MathUtils.floor(viewBounds.x / chunkPixels).coerceAtLeast(0)
+        val minRow = MathUtils.floor(viewBounds.y / chunkPixels).coerceAtLeast(0)
+        val maxCol = MathUtils.floor((viewBounds.x + viewBounds.width) / chunkPixels).coerceAtMost(chunkCols - 1)
+        val maxRow = MathUtils.floor((viewBounds.y + viewBounds.height) / chunkPixels).coerceAtMost(chunkRows - 1)
+        if (minCol > maxCol || minRow > maxRow) return
+
+        batch.end()
+        cache.projectionMatrix = cam.combined
+        cache.setShader(if (inverted) res.invertShader else null)
+        cache.begin()
+        for (row in minRow..maxRow) {
+            for (col in minCol..maxCol) {
+                cache.draw(chunkIds[row * chunkCols + col])
             }
         }
+        cache.end()
+        batch.begin()
     }
 
     override fun dispose() {
         tiledMap?.dispose()
+        tileCache?.dispose()
     }
 
 }
\ No newline at end of file
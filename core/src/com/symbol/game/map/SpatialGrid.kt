@@ -0,0 +1,146 @@
+package com.symbol.game.map
+
+import com.badlogic.gdx.math.MathUtils
+import com.badlogic.gdx.math.Rectangle
+import com.badlogic.gdx.utils.Array
+import com.badlogic.gdx.utils.IntArray
+
+class SpatialGrid(private val cellSize: Int = TILE_SIZE) {
+
+    private var cols = 1
+    private var rows = 1
+    private val cells = Array<IntArray>()
+
+    // per id: minCol, minRow, maxCol, maxRow (or -1 when not inserted)
+    private var ranges = kotlin.IntArray(0)
+    private var stamps = kotlin.IntArray(0)
+    private var queryStamp = 0
+
+    init {
+        resize(cellSize, cellSize)
+    }
+
+    fun resize(width: Int, height: Int) {
+        cols = MathUtils.ceil(width.toFloat() / cellSize).coerceAtLeast(1)
+        rows = MathUtils.ceil(height.toFloat() / cellSize).coerceAtLeast(1)
+
+        cells.clear()
+        repeat(cols * rows) { cells.add(IntArray(false, 4)) }
+        ranges.fill(-1)
+    }
+
+    fun clear() {
+        cells.forEach { it.clear() }
+        ranges.fill(-1)
+    }
+
+    fun insert(id: Int, rect: Rectangle) {
+        ensureCapacity(id)
+        val minCol = col(rect.x)
+        val minRow = row(rect.y)
+        val maxCol = col(rect.x + rect.width)
+        val maxRow = row(rect.y + rect.height)
+
+        for (r in minRow..maxRow) {
+            for (c in minCol..maxCol) {
+                cells[r * cols + c].add(id)
+            }
+        }
+        setRange(id, minCol, minRow, maxCol, maxRow)
+    }
+
+    fun remove(id: Int) {
+        if (id >= stamps.size || ranges[id * 4] == -1) return
+        for (r in ranges[id * 4 + 1]..ranges[id * 4 + 3]) {
+            for (c in ranges[id * 4]..ranges[id * 4 + 2]) {
+                cells[r * cols + c].removeValue(id)
+            }
+        }
+        setRange(id, -1, -1, -1, -1)
+    }
+
+    fun update(id: Int, rect: Rectangle) {
+        if (id < stamps.size && ranges[id * 4] == col(rect.x) && ranges[id * 4 + 1] == row(rect.y) &&
+                ranges[id * 4 + 2] == col(rect.x + rect.width) && ranges[id * 4 + 3] == row(rect.y + rect.height)) {
+            return
+        }
+        remove(id)
+        insert(id, rect)
+    }
+
+    fun removeFrom(id: Int) {
+        for (i in id until stamps.size) remove(i)
+    }
+
+    fun contains(id: Int) : Boolean = id < stamps.size && ranges[id * 4] != -1
+
+    // ids come out sorted so callers visit candidates in the same order as the backing collection
+    fun query(rect: Rectangle, out: IntArray) {
+        queryRange(col(rect.x), row(rect.y), col(rect.x + rect.width), row(rect.y + rect.height), out)
+    }
+
+    // also collects the ids in the cell containing (x, y)
+    fun query(rect: Rectangle, x: Float, y: Float, out: IntArray) {
+        beginQuery(out)
+        collect(col(rect.x), row(rect.y), col(rect.x + rect.width), row(rect.y + rect.height), out)
+        collect(col(x), row(y), col(x), row(y), out)
+        out.sort()
+    }
+
+    // in cell order, for callers that don't care which candidate comes first
+    fun queryUnsorted(rect: Rectangle, out: IntArray) {
+        beginQuery(out)
+        collect(col(rect.x), row(rect.y), col(rect.x + rect.width), row(rect.y + rect.height), out)
+    }
+
+    fun queryRange(minCol: Int, minRow: Int, maxCol: Int, maxRow: Int, out: IntArray) {
+        beginQuery(out)
+        collect(minCol, minRow, maxCol, maxRow, out)
+        out.sort()
+    }
+
+    fun col(x: Float) : Int = MathUtils.clamp(MathUtils.floor(x / cellSize), 0, cols - 1)
+
+    fun row(y: Float) : Int = MathUtils.clamp(MathUtils.floor(y / cellSize), 0, rows - 1)
+
+    private fun beginQuery(out: IntArray) {
+        out.clear()
+        if (queryStamp == Int.MAX_VALUE) {
+            stamps.fill(0)
+            queryStamp = 0
+        }
+        queryStamp++
+    }
+
+    private fun collect(minCol: Int, minRow: Int, maxCol: Int, maxRow: Int, out: IntArray) {
+        for (r in minRow..maxRow) {
+            for (c in minCol..maxCol) {
+                val cell = cells[r * cols + c]
+                for (i in 0 until cell.size) {
+                    val id = cell.items[i]
+                    if (stamps[id] != queryStamp) {
+                        stamps[id] = queryStamp
+                        out.add(id)
+                    }
+                }
+            }
+        }
+    }
+
+    private fun setRange(id: Int, minCol: Int, minRow: Int, maxCol: Int, maxRow: Int) {
+        ranges[id * 4] = minCol
+        ranges[id * 4 + 1] = minRow
+        ranges[id * 4 + 2] = maxCol
+        ranges[id * 4 + 3] = maxRow
+    }
+
+    private fun ensureCapacity(id: Int) {
+        if (id < stamps.size) return
+        val size = maxOf(id + 1, stamps.size * 2, 16)
+        val oldSize = stamps.size
+        stamps = stamps.copyOf(size)
+        ranges = ranges.copyOf(size * 4)
+        ranges.fill(-1, oldSize * 4)
+    }
+
+}
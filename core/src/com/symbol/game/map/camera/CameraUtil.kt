@@ -1,20 +1,34 @@
 package com.symbol.game.map.camera
 
 import com.badlogic.gdx.graphics.OrthographicCamera
+import com.badlogic.gdx.math.Rectangle
 import com.symbol.game.map.TILE_SIZE
+import kotlin.math.abs
 
 object CameraUtil {
 
-    private const val X_HALF = 13
-    private const val Y_HALF = 9
+    // x, y is the bottom left of the drawn area
+    fun withinCamera(x: Float, y: Float, cam: OrthographicCamera,
+                     width: Float = TILE_SIZE.toFloat(), height: Float = TILE_SIZE.toFloat()) : Boolean {
+        val halfWidth = halfWidth(cam)
+        val halfHeight = halfHeight(cam)
+        return x + width >= cam.position.x - halfWidth &&
+                x <= cam.position.x + halfWidth &&
+                y + height >= cam.position.y - halfHeight &&
+                y <= cam.position.y + halfHeight
+    }
 
-    fun withinCamera(x: Float, y: Float, cam: OrthographicCamera) : Boolean {
-        val xOffset = TILE_SIZE * X_HALF
-        val yOffset = TILE_SIZE * Y_HALF
-        return x >= cam.position.x - xOffset - TILE_SIZE &&
-                x <= cam.position.x + xOffset &&
-                y >= cam.position.y - yOffset &&
-                y <= cam.position.y + yOffset
+    fun getBounds(cam: OrthographicCamera, out: Rectangle) : Rectangle {
+        val halfWidth = halfWidth(cam)
+        val halfHeight = halfHeight(cam)
+        return out.set(cam.position.x - halfWidth, cam.position.y - halfHeight, halfWidth * 2, halfHeight * 2)
     }
 
+    // half extents of the axis aligned box around the zoomed and rotated view
+    private fun halfWidth(cam: OrthographicCamera) : Float =
+            abs(cam.viewportWidth * cam.up.y) * cam.zoom / 2 + abs(cam.viewportHeight * cam.up.x) * cam.zoom / 2
+
+    private fun halfHeight(cam: OrthographicCamera) : Float =
+            abs(cam.viewportWidth * cam.up.x) * cam.zoom / 2 + abs(cam.viewportHeight * cam.up.y) * cam.zoom / 2
+
 }
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.symbol.game.profiling
+
+import com.badlogic.gdx.math.MathUtils
+import java.util.Arrays
+
+// ring buffer of the last capacity samples
+class FrameHistogram(capacity: Int) {
+
+    private val samples = LongArray(capacity)
+    private val sorted = LongArray(capacity)
+    private var next = 0
+
+    var count = 0
+        private set
+
+    fun add(sample: Long) {
+        samples[next] = sample
+        next = (next + 1) % samples.size
+        if (count < samples.size) count++
+    }
+
+    fun clear() {
+        next = 0
+        count = 0
+    }
+
+    // percentiles read from the last sort, so sort once and then ask for as many as needed
+    fun sort() {
+        System.arraycopy(samples, 0, sorted, 0, count)
+        Arrays.sort(sorted, 0, count)
+    }
+
+    fun percentile(p: Float) : Long {
+        if (count == 0) return 0
+        return sorted[MathUtils.clamp(MathUtils.ceil(p * count) - 1, 0, count - 1)]
+    }
+
+}
\ No newline at end of file
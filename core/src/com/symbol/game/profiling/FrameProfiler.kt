@@ -0,0 +1,165 @@
+package com.symbol.game.profiling
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.files.FileHandle
+import com.badlogic.gdx.utils.Array
+import com.badlogic.gdx.utils.ObjectMap
+import com.badlogic.gdx.utils.TimeUtils
+import com.symbol.game.ecs.FamilyUpdateCounter
+import com.symbol.game.ecs.SystemStepper
+
+private const val HISTORY_FRAMES = 600
+private const val MAX_TRACKS = 32
+private const val MAX_RECORDED_FRAMES = 7200
+private const val FRAME_TRACK = "Frame"
+private const val FAMILY_UPDATES_TRACK = "Family updates"
+private const val CSV_DIRECTORY = "profiling"
+
+// per frame timings of the engine systems and anything else measured between beginFrame and endFrame
+object FrameProfiler {
+
+    val tracks = Array<ProfilerTrack>()
+    private val tracksByName = ObjectMap<String, ProfilerTrack>()
+    private val systemTracks = ObjectMap<Class<out EntitySystem>, ProfilerTrack>()
+    private val frameTrack = track(FRAME_TRACK)
+    private val familyUpdatesTrack = track(FAMILY_UPDATES_TRACK, counter = true)
+    private val familyUpdates = FamilyUpdateCounter()
+
+    var enabled = false
+        set(value) {
+            if (value && !field) {
+                tracks.forEach { it.histogram.clear() }
+                familyUpdates.take()
+            }
+            // the counter listens to every entity, so it's only attached while profiling
+            if (!value && field) familyUpdates.detach()
+            field = value
+        }
+
+    private var frame = 0
+    private var frameStart = 0L
+
+    private val stepper = SystemStepper()
+    private val systemTimer = object : SystemStepper.Listener {
+        private var start = 0L
+
+        override fun beforeSystem(system: EntitySystem) {
+            start = TimeUtils.nanoTime()
+        }
+
+        override fun afterSystem(system: EntitySystem) {
+            systemTrack(system).frameValue += TimeUtils.nanoTime() - start
+        }
+    }
+
+    var recording = false
+        private set
+    private var recordingLabel = ""
+    private var recorded = LongArray(0)
+    private var recordedFrames = 0
+
+    fun track(name: String, counter: Boolean = false) : ProfilerTrack {
+        var track = tracksByName[name]
+        if (track == null) {
+            if (tracks.size == MAX_TRACKS) throw IllegalStateException("Too many profiler tracks, $name can't be added")
+            track = ProfilerTrack(name, tracks.size, HISTORY_FRAMES, counter)
+            tracks.add(track)
+            tracksByName.put(name, track)
+        }
+        return track
+    }
+
+    inline fun measure(name: String, block: () -> Unit) {
+        if (!enabled) block()
+        else measure(track(name), block)
+    }
+
+    inline fun measure(track: ProfilerTrack, block: () -> Unit) {
+        if (!enabled) {
+            block()
+            return
+        }
+        val start = TimeUtils.nanoTime()
+        block()
+        track.frameValue += TimeUtils.nanoTime() - start
+    }
+
+    // adds to a counter track, for things like how many hits a system found this frame
+    fun count(name: String, value: Int) {
+        if (enabled) track(name, counter = true).frameValue += value
+    }
+
+    // every system gets its own track
+    fun update(engine: Engine, dt: Float) {
+        if (enabled) {
+            familyUpdates.attach(engine)
+            stepper.update(engine, dt, systemTimer)
+        }
+        else engine.update(dt)
+    }
+
+    // taken even when disabled so a frame that turns profiling on still has a start
+    fun beginFrame() {
+        frameStart = TimeUtils.nanoTime()
+    }
+
+    fun endFrame() {
+        if (!enabled) return
+        frameTrack.frameValue = TimeUtils.nanoTime() - frameStart
+        familyUpdatesTrack.frameValue = familyUpdates.take().toLong()
+
+        val recordFrame = recording && recordedFrames < MAX_RECORDED_FRAMES
+        for (track in tracks) {
+            track.histogram.add(track.frameValue)
+            if (recordFrame) recorded[recordedFrames * MAX_TRACKS + track.index] = track.frameValue
+            track.frameValue = 0
+        }
+        if (recordFrame) recordedFrames++
+        frame++
+
+        if (recordedFrames == MAX_RECORDED_FRAMES) stopRecording()
+    }
+
+    fun startRecording(label: String) {
+        if (recording) return
+        if (recorded.isEmpty()) recorded = LongArray(MAX_RECORDED_FRAMES * MAX_TRACKS)
+        recorded.fill(0)
+        recordedFrames = 0
+        recordingLabel = label
+        recording = true
+        enabled = true
+    }
+
+    // writes one row per frame and one column per track in nanoseconds, or counts for counter tracks
+    fun stopRecording() : FileHandle? {
+        if (!recording) return null
+        recording = false
+
+        val csv = StringBuilder("frame")
+        for (track in tracks) csv.append(',').append(track.name)
+        csv.append('\n')
+        val firstFrame = frame - recordedFrames
+        for (row in 0 until recordedFrames) {
+            csv.append(firstFrame + row)
+            for (track in tracks) csv.append(',').append(recorded[row * MAX_TRACKS + track.index])
+            csv.append('\n')
+        }
+
+        val file = Gdx.files.local("$CSV_DIRECTORY/$recordingLabel-${TimeUtils.millis()}.csv")
+        file.writeString(csv.toString(), false)
+        println("Profiled $recordedFrames frames to ${file.path()}")
+        return file
+    }
+
+    private fun systemTrack(system: EntitySystem) : ProfilerTrack {
+        var track = systemTracks[system.javaClass]
+        if (track == null) {
+            track = track(system.javaClass.simpleName)
+            systemTracks.put(system.javaClass, track)
+        }
+        return track
+    }
+
+}
\ No newline at end of file
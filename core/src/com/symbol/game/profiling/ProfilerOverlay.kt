@@ -0,0 +1,83 @@
+package com.symbol.game.profiling
+
+import com.badlogic.gdx.graphics.Color
+import com.badlogic.gdx.graphics.g2d.Batch
+import com.badlogic.gdx.utils.Array
+import com.symbol.game.util.Resources
+
+private const val REFRESH_INTERVAL = 0.5f
+private const val FONT_SCALE = 0.5f
+private const val PADDING = 2f
+private const val NAME_COLUMN_WIDTH = 60f
+private const val VALUE_COLUMN_WIDTH = 18f
+
+private val PERCENTILES = floatArrayOf(0.5f, 0.95f, 0.99f)
+
+// p50, p95 and p99 of every track in microseconds, or counts for counter tracks, drawn in the stage's coordinates
+class ProfilerOverlay(private val res: Resources) {
+
+    var visible = false
+
+    private val font = res.getLabelStyle().font
+    private val backgroundColor = Color.toFloatBits(1f, 1f, 1f, 0.8f)
+    private val fontColor = Color()
+
+    private val names = Array<String>()
+    private val values = Array<String>()
+    private var refreshTimer = REFRESH_INTERVAL
+
+    fun render(batch: Batch, dt: Float, x: Float, y: Float) {
+        if (!visible) return
+
+        refreshTimer += dt
+        if (refreshTimer >= REFRESH_INTERVAL) {
+            refreshTimer = 0f
+            refresh()
+        }
+
+        val scaleX = font.data.scaleX
+        val scaleY = font.data.scaleY
+        fontColor.set(font.color)
+        font.data.setScale(FONT_SCALE)
+        val lineHeight = font.lineHeight
+
+        val batchColor = batch.packedColor
+        batch.setColor(backgroundColor)
+        batch.draw(res.whiteTexel, x, y - lineHeight * (names.size + 1) - PADDING * 2,
+                NAME_COLUMN_WIDTH + VALUE_COLUMN_WIDTH * PERCENTILES.size + PADDING * 2,
+                lineHeight * (names.size + 1) + PADDING * 2)
+        batch.setColor(batchColor)
+
+        font.color = Color.BLACK
+        var lineY = y - PADDING
+        font.draw(batch, "us", x + PADDING, lineY)
+        PERCENTILES.forEachIndexed { i, p ->
+            font.draw(batch, "p${(p * 100).toInt()}", x + PADDING + NAME_COLUMN_WIDTH + VALUE_COLUMN_WIDTH * i, lineY)
+        }
+        for (i in 0 until names.size) {
+            lineY -= lineHeight
+            font.draw(batch, names[i], x + PADDING, lineY)
+            for (j in 0 until PERCENTILES.size) {
+                font.draw(batch, values[i * PERCENTILES.size + j],
+                        x + PADDING + NAME_COLUMN_WIDTH + VALUE_COLUMN_WIDTH * j, lineY)
+            }
+        }
+
+        font.data.setScale(scaleX, scaleY)
+        font.color = fontColor
+    }
+
+    private fun refresh() {
+        names.clear()
+        values.clear()
+        for (track in FrameProfiler.tracks) {
+            track.histogram.sort()
+            names.add(track.name)
+            for (p in PERCENTILES) {
+                val value = track.histogram.percentile(p)
+                values.add((if (track.counter) value else value / 1000).toString())
+            }
+        }
+    }
+
+}
\ No newline at end of file
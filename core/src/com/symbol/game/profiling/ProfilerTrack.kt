@@ -0,0 +1,11 @@
+package com.symbol.game.profiling
+
+// counter tracks hold a count per frame instead of nanoseconds
+class ProfilerTrack(val name: String, val index: Int, historyFrames: Int, val counter: Boolean = false) {
+
+    val histogram = FrameHistogram(historyFrames)
+
+    // summed over the frame since fixed step systems can run more than once per frame
+    var frameValue = 0L
+
+}
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.symbol.game.scene;
 
 import com.badlogic.ashley.core.Entity;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.scenes.scene2d.Actor;
 import com.badlogic.gdx.scenes.scene2d.InputEvent;
@@ -23,6 +22,7 @@ import com.symbol.game.ecs.component.player.ChargeComponent;
 import com.symbol.game.scene.dialog.HelpDialog;
 import com.symbol.game.scene.dialog.PauseDialog;
 import com.symbol.game.scene.page.Page;
+import com.symbol.game.util.ColorUtil;
 
 public class Hud extends Scene {
 
@@ -54,7 +54,15 @@ public class Hud extends Scene {
     private float decayingHpBarWidth;
     private boolean startHpBarDecay = false;
     private boolean damaged = true;
-    private TextureRegion hpBarColor;
+    // bars are the white texel tinted with these packed colors
+    private float hpBarColor;
+    private float black;
+    private float hpBarBgColor;
+    private float hpBarRed;
+    private float hpBarOrange;
+    private float hpBarYellow;
+    private float hpBarGreen;
+    private float hpBarHealColor;
     private Image hpBarIcon;
     private TextureRegionDrawable hpBarIconGreen;
     private TextureRegionDrawable hpBarIconYellow;
@@ -67,6 +75,8 @@ public class Hud extends Scene {
     private Image chargeBarIcon;
     private TextureRegionDrawable zeroChargeBar;
     private TextureRegionDrawable chargeBarTiers[] = new TextureRegionDrawable[4];
+    private float chargeBarColors[] = new float[5];
+    private float chargeBarDecayColor;
 
     private HelpDialog helpDialog;
     private PauseDialog pauseDialog;
@@ -87,7 +97,14 @@ public class Hud extends Scene {
         root.top();
         stage.addActor(root);
 
-        hpBarColor = res.getTexture("hp_bar_green");
+        black = data.getPackedColor("black");
+        hpBarBgColor = data.getPackedColor("hp_bar_bg_color");
+        hpBarRed = data.getPackedColor("hp_bar_color");
+        hpBarOrange = data.getPackedColor("hp_bar_orange");
+        hpBarYellow = data.getPackedColor("hp_bar_yellow");
+        hpBarGreen = data.getPackedColor("hp_bar_green");
+        hpBarHealColor = data.getPackedColor("hp_bar_heal_color");
+        hpBarColor = hpBarGreen;
 
         pauseDialog = new PauseDialog(context);
 
@@ -180,6 +197,14 @@ public class Hud extends Scene {
             chargeBarTiers[i - 1] = new TextureRegionDrawable(res.getTexture("charge_bar_icon" + i));
         }
 
+        chargeBarColors[0] = data.getPackedColor("zero_charge_color");
+        chargeBarColors[1] = data.getPackedColor("p_dot");
+        for (int i = 2; i < chargeBarColors.length; i++) {
+            String hex = data.getColor("p_dot" + i);
+            if (hex != null) chargeBarColors[i] = ColorUtil.INSTANCE.pack(hex);
+        }
+        chargeBarDecayColor = data.getPackedColor("player");
+
         chargeBarIcon = new Image(chargeBarTiers[0]);
         chargeBarIcon.setVisible(false);
         root.row();
@@ -195,8 +220,10 @@ public class Hud extends Scene {
     public void render(float dt) {
         if (helpDialog.isDisplayed()) helpDialog.update(dt);
         if (toggle) {
+            float batchColor = batch.getPackedColor();
             renderHpBar();
             renderChargeBar();
+            batch.setColor(batchColor);
         }
     }
 
@@ -219,19 +246,19 @@ public class Hud extends Scene {
         }
 
         if (hpPercentage <= HP_BAR_RED_THRESHOLD) {
-            hpBarColor = res.getTexture("hp_bar_color");
+            hpBarColor = hpBarRed;
             hpBarIcon.setDrawable(hpBarIconRed);
         }
         else if (hpPercentage <= HP_BAR_ORANGE_THRESHOLD) {
-            hpBarColor = res.getTexture("hp_bar_orange");
+            hpBarColor = hpBarOrange;
             hpBarIcon.setDrawable(hpBarIconOrange);
         }
         else if (hpPercentage <= HP_BAR_YELLOW_THRESHOLD) {
-            hpBarColor = res.getTexture("hp_bar_yellow");
+            hpBarColor = hpBarYellow;
             hpBarIcon.setDrawable(hpBarIconYellow);
         }
         else {
-            hpBarColor = res.getTexture("hp_bar_green");
+            hpBarColor = hpBarGreen;
             hpBarIcon.setDrawable(hpBarIconGreen);
         }
 
@@ -258,21 +285,21 @@ public class Hud extends Scene {
     }
 
     private void renderHpBar() {
-        batch.draw(res.getTexture("black"), HP_BAR_POSITION.x, HP_BAR_POSITION.y,
+        drawBar(black, HP_BAR_POSITION.x, HP_BAR_POSITION.y,
                 HP_BAR_WIDTH + 2, HP_BAR_HEIGHT + 2);
-        batch.draw(res.getTexture("hp_bar_bg_color"), HP_BAR_POSITION.x + 1, HP_BAR_POSITION.y + 1,
+        drawBar(hpBarBgColor, HP_BAR_POSITION.x + 1, HP_BAR_POSITION.y + 1,
                 HP_BAR_WIDTH, HP_BAR_HEIGHT);
-        batch.draw(hpBarColor, HP_BAR_POSITION.x + 1, HP_BAR_POSITION.y + 1,
+        drawBar(hpBarColor, HP_BAR_POSITION.x + 1, HP_BAR_POSITION.y + 1,
                 hpBarWidth, HP_BAR_HEIGHT);
 
         if (startHpBarDecay) {
             if (damaged) {
-                batch.draw(res.getTexture("hp_bar_color"),
+                drawBar(hpBarRed,
                         HP_BAR_POSITION.x + 1 + hpBarWidth, HP_BAR_POSITION.y + 1,
                         decayingHpBarWidth, HP_BAR_HEIGHT);
             }
             else {
-                batch.draw(res.getTexture("hp_bar_heal_color"),
+                drawBar(hpBarHealColor,
                         HP_BAR_POSITION.x + 1 + hpBarWidth - decayingHpBarWidth,
                         HP_BAR_POSITION.y + 1, decayingHpBarWidth, HP_BAR_HEIGHT);
             }
@@ -281,32 +308,34 @@ public class Hud extends Scene {
 
     private void renderChargeBar() {
         ChargeComponent chargeComp = Mapper.INSTANCE.getCHARGE_MAPPER().get(player);
-        batch.draw(res.getTexture("black"), CHARGE_BAR_POSITION.x, CHARGE_BAR_POSITION.y,
+        drawBar(black, CHARGE_BAR_POSITION.x, CHARGE_BAR_POSITION.y,
                 CHARGE_BAR_WIDTH + 2, CHARGE_BAR_HEIGHT + 2);
-        batch.draw(res.getTexture("hp_bar_bg_color"), CHARGE_BAR_POSITION.x + 1, CHARGE_BAR_POSITION.y + 1,
+        drawBar(hpBarBgColor, CHARGE_BAR_POSITION.x + 1, CHARGE_BAR_POSITION.y + 1,
                 CHARGE_BAR_WIDTH, CHARGE_BAR_HEIGHT);
 
         int chargeIndex = chargeComp.getChargeIndex(data.getPlayerData("chargeThreshold").asInt());
-        String hex = chargeIndex == 0 ? "zero_charge_color"
-                : chargeIndex == 1 ? data.getColor("p_dot") :
-                data.getColor("p_dot" + chargeIndex);
-        batch.draw(res.getTexture(hex), CHARGE_BAR_POSITION.x + 1, CHARGE_BAR_POSITION.y + 1,
+        drawBar(chargeBarColors[chargeIndex], CHARGE_BAR_POSITION.x + 1, CHARGE_BAR_POSITION.y + 1,
                 chargeBarWidth, CHARGE_BAR_HEIGHT);
 
         if (startChargeBarDecay) {
-            batch.draw(res.getTexture(data.getColor("player")),
+            drawBar(chargeBarDecayColor,
                     CHARGE_BAR_POSITION.x + 1 + chargeBarWidth, CHARGE_BAR_POSITION.y + 1,
                     decayingChargeBarWidth, CHARGE_BAR_HEIGHT);
         }
 
-        batch.draw(res.getTexture("black"),
+        drawBar(black,
                 CHARGE_BAR_POSITION.x + 1 + BAR_ONE_OFFSET, CHARGE_BAR_POSITION.y + 1, 1, CHARGE_BAR_HEIGHT);
-        batch.draw(res.getTexture("black"),
+        drawBar(black,
                 CHARGE_BAR_POSITION.x + 1 + BAR_TWO_OFFSET, CHARGE_BAR_POSITION.y + 1, 1, CHARGE_BAR_HEIGHT);
-        batch.draw(res.getTexture("black"),
+        drawBar(black,
                 CHARGE_BAR_POSITION.x + 1 + BAR_THREE_OFFSET, CHARGE_BAR_POSITION.y + 1, 1, CHARGE_BAR_HEIGHT);
     }
 
+    private void drawBar(float color, float x, float y, float width, float height) {
+        batch.setColor(color);
+        batch.draw(res.getWhiteTexel(), x, y, width, height);
+    }
+
     public Dialog getPauseDialog() {
         return pauseDialog;
     }
@@ -8,12 +8,11 @@ import com.badlogic.gdx.graphics.GL20
 import com.badlogic.gdx.math.Vector2
 import com.symbol.game.Config
 import com.symbol.game.Symbol
+import com.symbol.game.ecs.GameListener
 import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.SystemFactory
 import com.symbol.game.ecs.entity.Player
 import com.symbol.game.ecs.system.*
-import com.symbol.game.ecs.system.enemy.EnemyActivationSystem
-import com.symbol.game.ecs.system.enemy.EnemyAttackSystem
-import com.symbol.game.ecs.system.enemy.EnemyMovementSystem
 import com.symbol.game.effects.particle.ParticleSpawner
 import com.symbol.game.input.AndroidInput
 import com.symbol.game.input.KeyInput
@@ -23,6 +22,8 @@ import com.symbol.game.map.TILE_SIZE
 import com.symbol.game.map.camera.Background
 import com.symbol.game.map.camera.CameraRotation
 import com.symbol.game.map.camera.CameraShake
+import com.symbol.game.profiling.FrameProfiler
+import com.symbol.game.profiling.ProfilerOverlay
 import com.symbol.game.scene.Hud
 import com.symbol.game.scene.dialog.DeathDialog
 
@@ -30,7 +31,7 @@ private const val CAMERA_LERP = 2.5f
 private const val PARALLAX_SCALING = 0.2f
 private const val DEBUG_CAM_SPEED = 2f
 
-class GameScreen(game: Symbol) : AbstractScreen(game) {
+class GameScreen(game: Symbol) : AbstractScreen(game), GameListener {
 
     private val engine = PooledEngine()
 
@@ -52,11 +53,18 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
 
     private var debugCamera = false
 
+    private val interpolationSystem = InterpolationSystem()
+    private val renderSystem = RenderSystem(game.batch, cam)
+    private val statusRenderSystem = StatusRenderSystem(game.batch, game.res, game.data, cam)
+    private var accumulator = 0f
+
+    private val profilerOverlay = ProfilerOverlay(game.res)
+
     init {
         engine.addEntity(player)
         initSystems()
 
-        val keyInputSystem = KeyInputSystem(game.res, game.data)
+        val keyInputSystem = KeyInputSystem(game.data)
         input = KeyInput(keyInputSystem)
         androidInput = AndroidInput(game, keyInputSystem, stage, viewport)
 
@@ -71,29 +79,14 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
 
     private fun initSystems() {
         with (engine) {
-            addSystem(MovementSystem())
-            addSystem(MapCollisionSystem(game.res))
-            addSystem(MapEntitySystem(player, game.res))
-            addSystem(ProjectileSystem(player, game.res, game.data, this@GameScreen))
-            addSystem(HealthSystem())
-            addSystem(EnemyActivationSystem(player))
-            addSystem(EnemyAttackSystem(player, game.res, game.data))
-            addSystem(EnemyMovementSystem(player, game.res))
-            addSystem(DirectionSystem())
-            addSystem(GravitySystem())
-            addSystem(StatusEffectSystem())
-            addSystem(RenderSystem(game.batch, cam, game.res))
-            addSystem(StatusRenderSystem(game.batch, game.res, cam))
+            SystemFactory.addWorldSystems(this, player, game.res, game.data, this@GameScreen, game.systemRunner)
+            getSystem(RegionSystem::class.java).camera = cam
             addSystem(RemoveSystem())
-        }
-    }
 
-    private fun resetSystems() {
-        with (engine) {
-            getSystem(MapCollisionSystem::class.java).setMapData(mapManager.mapObjects,
-                    mapManager.mapWidth * TILE_SIZE, mapManager.mapHeight * TILE_SIZE)
-            getSystem(ProjectileSystem::class.java).setMapData(mapManager.mapObjects)
-            getSystem(EnemyAttackSystem::class.java).setMapData(mapManager.mapWidth.toFloat() * TILE_SIZE)
+            // drawn once per frame from render rather than on every fixed step
+            addSystem(interpolationSystem)
+            addSystem(renderSystem.apply { setProcessing(false) })
+            addSystem(statusRenderSystem.apply { setProcessing(false) })
         }
     }
 
@@ -123,8 +116,9 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         if (!CameraRotation.isEnded()) CameraRotation.end()
 
         ParticleSpawner.reset()
+        accumulator = 0f
 
-        resetSystems()
+        SystemFactory.setMapData(engine, mapManager)
         notifyResume()
         hud.toggle(true)
         androidInput.toggle(true)
@@ -133,10 +127,22 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
     }
 
     private fun update(dt: Float) {
-        if (Config.isDebug()) debugCamera()
+        accumulator += dt
+        while (accumulator >= Config.SIM_STEP) {
+            interpolationSystem.snapshot()
+            FrameProfiler.update(engine, Config.SIM_STEP)
+            FrameProfiler.measure("ParticleSpawner.update") { ParticleSpawner.update(Config.SIM_STEP) }
+            accumulator -= Config.SIM_STEP
+        }
+        interpolationSystem.alpha = accumulator / Config.SIM_STEP
+        FrameProfiler.measure("InterpolationSystem") { interpolationSystem.update(dt) }
+
+        if (Config.isDebug()) {
+            debugCamera()
+            debugProfiler()
+        }
         updateCamera(dt)
         background.update(dt)
-        ParticleSpawner.update(dt)
 
         hud.update(dt)
     }
@@ -145,8 +151,8 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         val playerPos = Mapper.POS_MAPPER[player]
 
         if (!debugCamera) {
-            cam.position.x += (playerPos.x + (TILE_SIZE / 2) - cam.position.x) * CAMERA_LERP * dt
-            cam.position.y += (playerPos.y + (TILE_SIZE / 2) - cam.position.y) * CAMERA_LERP * dt
+            cam.position.x += (playerPos.renderX + (TILE_SIZE / 2) - cam.position.x) * CAMERA_LERP * dt
+            cam.position.y += (playerPos.renderY + (TILE_SIZE / 2) - cam.position.y) * CAMERA_LERP * dt
 
             if (CameraShake.time > 0 || CameraShake.toggle) {
                 CameraShake.update(dt)
@@ -158,15 +164,8 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         cam.update()
     }
 
-    private fun updateEngine(dt: Float) {
-        if (gameState == GameState.Pause) {
-            engine.getSystem(RenderSystem::class.java).update(dt)
-            engine.getSystem(StatusRenderSystem::class.java).update(dt)
-        }
-        else engine.update(dt)
-    }
-
     override fun render(dt: Float) {
+        FrameProfiler.beginFrame()
         if (gameState != GameState.Pause) update(dt)
 
         Gdx.gl.glClearColor(1f, 1f, 1f, 1f)
@@ -179,22 +178,30 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         if (canInvert) game.batch.shader = if (mapInverted) game.res.invertShader else null
 
         background.render(game.batch)
-        mapManager.render(game.batch, cam)
-        updateEngine(dt)
-        ParticleSpawner.render(game.batch, cam)
+        FrameProfiler.measure("MapManager.render") { mapManager.render(game.batch, cam, canInvert && mapInverted) }
+        FrameProfiler.measure("RenderSystem") { renderSystem.update(dt) }
+        if (!canInvert) FrameProfiler.measure("StatusRenderSystem") { statusRenderSystem.update(dt) }
+        FrameProfiler.measure("ParticleSpawner.render") { ParticleSpawner.render(game.batch, cam, game.res) }
 
         if (canInvert) {
             game.batch.shader = null
-            engine.getSystem(StatusRenderSystem::class.java).update(dt)
+            FrameProfiler.measure("StatusRenderSystem") { statusRenderSystem.update(dt) }
         }
 
         game.batch.projectionMatrix = stage.camera.combined
-        hud.render(dt)
+        FrameProfiler.measure("Hud.render") { hud.render(dt) }
 
         game.batch.end()
 
         stage.act(dt)
         stage.draw()
+        FrameProfiler.endFrame()
+
+        if (profilerOverlay.visible) {
+            game.batch.begin()
+            profilerOverlay.render(game.batch, dt, 0f, stage.camera.viewportHeight)
+            game.batch.end()
+        }
     }
 
     override fun notifyPause() {
@@ -214,6 +221,14 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         }
     }
 
+    override fun onMapInverted(inverted: Boolean) {
+        mapInverted = inverted
+    }
+
+    override fun onPlayerDeath() {
+        if (!deathDialog.isDisplayed) showDeathDialog()
+    }
+
     fun showDeathDialog() {
         if (!Config.onAndroid()) multiplexer.removeProcessor(input)
         hud.toggle(false)
@@ -223,6 +238,7 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
 
     override fun dispose() {
         super.dispose()
+        FrameProfiler.stopRecording()
         mapManager.dispose()
 
         hud.dispose()
@@ -248,6 +264,21 @@ class GameScreen(game: Symbol) : AbstractScreen(game) {
         if (Gdx.input.isKeyJustPressed(Input.Keys.K)) cam.zoom += 0.1f
 
         if (Gdx.input.isKeyJustPressed(Input.Keys.R)) cam.rotate(45f)
+
+        if (Gdx.input.isKeyJustPressed(Input.Keys.C)) {
+            engine.getSystem(MapCollisionSystem::class.java).run {
+                collisionMode = if (collisionMode == CollisionMode.Swept) CollisionMode.SubStep else CollisionMode.Swept
+            }
+        }
+    }
+
+    private fun debugProfiler() {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) profilerOverlay.visible = !profilerOverlay.visible
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            if (FrameProfiler.recording) FrameProfiler.stopRecording()
+            else FrameProfiler.startRecording("map$mapIndex")
+        }
+        FrameProfiler.enabled = profilerOverlay.visible || FrameProfiler.recording
     }
 
 }
\ No newline at end of file
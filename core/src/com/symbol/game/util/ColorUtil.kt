@@ -0,0 +1,13 @@
+package com.symbol.game.util
+
+import com.badlogic.gdx.graphics.Color
+
+object ColorUtil {
+
+    // rrggbbaa hex to the float bits Batch.setColor(Float) takes
+    fun pack(hex: String) : Float {
+        val rgba = java.lang.Long.parseLong(hex, 16).toInt()
+        return Color.toFloatBits(rgba ushr 24, rgba ushr 16 and 0xff, rgba ushr 8 and 0xff, rgba and 0xff)
+    }
+
+}
\ No newline at end of file
@@ -69,6 +69,8 @@ class Data(private val res: Resources) {
 
     fun getColorFromHexKey(key: String) = Color(Color.valueOf(getColor(key)))
 
+    fun getPackedColor(key: String) : Float = ColorUtil.pack(getColor(key)!!)
+
     fun getHelpPage(key: String) : HelpPage? = helpPages[key]
 
     fun getPlayerData(key: String) = playerData[key]!!
@@ -40,6 +40,11 @@ class Resources : Disposable {
 
     private val assetManager = AssetManager()
     private val atlas: TextureAtlas
+    private val regions = ObjectMap<String, TextureRegion>()
+    private val variants = ObjectMap<String, TextureVariants>()
+
+    // centre of the skin's 3x3 white patch so filtering never samples its neighbours
+    val whiteTexel: TextureRegion
 
     val skin: Skin
     val invertShader: ShaderProgram
@@ -53,6 +58,9 @@ class Resources : Disposable {
         assetManager.finishLoading()
 
         atlas = assetManager.get("textures/textures.atlas", TextureAtlas::class.java)
+        // first region wins, same as findRegion
+        atlas.regions.forEach { if (!regions.containsKey(it.name)) regions.put(it.name, it) }
+        whiteTexel = TextureRegion(regions["white"], 1, 1, 1, 1)
 
         font = BitmapFont(Gdx.files.internal("font/font.fnt"), atlas.findRegion("font"), false).apply {
             setUseIntegerPositions(false)
@@ -70,7 +78,10 @@ class Resources : Disposable {
         mapSounds()
     }
 
-    fun getTexture(key: String) : TextureRegion? = atlas.findRegion(key)
+    fun getTexture(key: String) : TextureRegion? = regions[key]
+
+    fun getVariants(key: String) : TextureVariants =
+            variants[key] ?: TextureVariants(this, key).also { variants.put(key, it) }
 
     fun getNinePatch(key: String) : NinePatch? = atlas.createPatch(key)
 
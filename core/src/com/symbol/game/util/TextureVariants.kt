@@ -0,0 +1,14 @@
+package com.symbol.game.util
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion
+
+class TextureVariants(res: Resources, key: String) {
+
+    val base: TextureRegion? = res.getTexture(key)
+    val top: TextureRegion? = res.getTexture(key + TOP)
+    val topRight: TextureRegion? = res.getTexture(key + TOP_RIGHT)
+    val incorporeal: TextureRegion? = res.getTexture(key + INCORPOREAL)
+    val on: TextureRegion? = res.getTexture(key + TOGGLE_ON)
+    val off: TextureRegion? = res.getTexture(key + TOGGLE_OFF)
+
+}
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 import com.symbol.game.Config;
 import com.symbol.game.Symbol;
+import com.symbol.game.ecs.ForkJoinSystemRunner;
 
 public class DesktopLauncher {
 
@@ -22,7 +23,10 @@ public class DesktopLauncher {
         config.addIcon("textures/desktop_icon32.png", Files.FileType.Internal);
         config.addIcon("textures/desktop_icon16.png", Files.FileType.Internal);
 
-        new LwjglApplication(new Symbol(), config);
+        // the render thread waits in the pool for every split loop, so the pool gets every core
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean parallel = Config.PARALLEL_RUNNER && threads > 1;
+        new LwjglApplication(parallel ? new Symbol(new ForkJoinSystemRunner(threads)) : new Symbol(), config);
     }
 
 }
@@ -0,0 +1,124 @@
+package com.symbol.game.headless
+
+import com.badlogic.ashley.core.Engine
+import com.badlogic.ashley.core.EntitySystem
+import com.badlogic.gdx.ApplicationAdapter
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.backends.headless.HeadlessApplication
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration
+import com.symbol.game.ecs.FamilyUpdateCounter
+import com.symbol.game.ecs.SystemStepper
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+import java.lang.management.ManagementFactory
+import kotlin.system.exitProcess
+
+private const val TAG = "Allocations"
+private const val WARMUP_FRAMES = 600
+private const val MEASURED_FRAMES = 1800
+private const val FRAME = "Frame"
+
+// average bytes a frame may allocate per system, and in total, before the run fails. unlisted systems get none
+private val BUDGETS = mapOf(
+        // Ashley's bookkeeping for entities added and removed between systems
+        FRAME to 48L
+)
+
+private class AllocationScenario(val name: String, val mapIndex: Int, val script: (Int) -> InputScript)
+
+private val SCENARIOS = listOf(
+        AllocationScenario("idle", 0) { InputScript() },
+        AllocationScenario("patrol", 0) { InputScript.patrol(it) },
+        AllocationScenario("combat", 0) { InputScript.patrol(it, turnEvery = 120, jumpEvery = 30, shootEvery = 6) }
+)
+
+// bytes the simulation thread allocates inside each system's update
+private class AllocationCounter(engine: Engine) : SystemStepper.Listener {
+
+    private val threads = ManagementFactory.getThreadMXBean() as com.sun.management.ThreadMXBean
+    private val threadId = Thread.currentThread().id
+    private val systems = engine.systems
+    private var start = 0L
+
+    val bytes = LongArray(systems.size())
+    var frameBytes = 0L
+        private set
+
+    // what reading the counter costs, older JDKs allocate an array per read
+    private val overhead = (0 until 10).map { allocated().let { start -> allocated() - start } }.min()!!
+    private var reads = 0
+
+    fun step(world: SimulationWorld, script: InputScript) {
+        reads = 0
+        val frameStart = allocated()
+        world.step(script, listener = this)
+        frameBytes += allocated() - frameStart - overhead * (reads + 1)
+    }
+
+    override fun beforeSystem(system: EntitySystem) {
+        start = allocated()
+        reads++
+    }
+
+    override fun afterSystem(system: EntitySystem) {
+        bytes[systems.indexOf(system, true)] += allocated() - start - overhead
+        reads++
+    }
+
+    fun clear() {
+        bytes.fill(0)
+        frameBytes = 0
+    }
+
+    fun systemName(index: Int) : String = systems[index].javaClass.simpleName
+
+    private fun allocated() : Long = threads.getThreadAllocatedBytes(threadId)
+
+}
+
+// ./gradlew headless:allocations
+fun main() {
+    HeadlessApplication(object : ApplicationAdapter() {
+        override fun create() {
+            var failed = false
+            NoopGL.install()
+            val res = Resources()
+            val data = Data(res)
+            val world = SimulationWorld(res, data)
+            val counter = AllocationCounter(world.engine)
+            val familyUpdates = FamilyUpdateCounter()
+            familyUpdates.attach(world.engine)
+
+            for (scenario in SCENARIOS) {
+                world.load(scenario.mapIndex)
+                val script = scenario.script(WARMUP_FRAMES + MEASURED_FRAMES)
+                repeat(WARMUP_FRAMES) { counter.step(world, script) }
+                counter.clear()
+                familyUpdates.take()
+                repeat(MEASURED_FRAMES) { counter.step(world, script) }
+
+                Gdx.app.log(TAG, "${scenario.name} (map ${scenario.mapIndex}), bytes per frame:")
+                for (i in 0 until counter.bytes.size) {
+                    failed = report(counter.systemName(i), counter.bytes[i]) || failed
+                }
+                failed = report(FRAME, counter.frameBytes) || failed
+                // not budgeted, but every one walks all the families
+                Gdx.app.log(TAG, "\tfamily updates per frame: ${"%.2f".format(familyUpdates.take().toFloat() / MEASURED_FRAMES)}")
+            }
+
+            familyUpdates.detach()
+            world.dispose()
+            res.dispose()
+            exitProcess(if (failed) 1 else 0)
+        }
+    }, HeadlessApplicationConfiguration())
+}
+
+// true when over budget. rounded down so a pool or array growing once during the run doesn't count
+private fun report(name: String, bytes: Long) : Boolean {
+    val perFrame = bytes / MEASURED_FRAMES
+    val budget = BUDGETS[name] ?: 0L
+    val over = perFrame > budget
+    Gdx.app.log(TAG, "\t${name.padEnd(24)}${perFrame.toString().padStart(8)} / $budget${if (over) "  OVER BUDGET" else ""}")
+    return over
+}
\ No newline at end of file
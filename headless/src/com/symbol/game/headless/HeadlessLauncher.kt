@@ -0,0 +1,40 @@
+package com.symbol.game.headless
+
+import com.badlogic.gdx.ApplicationAdapter
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.backends.headless.HeadlessApplication
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration
+import com.badlogic.gdx.utils.TimeUtils
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+
+private const val TAG = "Simulation"
+
+fun main(args: Array<String>) {
+    val mapIndex = args.getOrNull(0)?.toInt() ?: 0
+    val frames = args.getOrNull(1)?.toInt() ?: 3600
+
+    HeadlessApplication(object : ApplicationAdapter() {
+        override fun create() {
+            NoopGL.install()
+            val res = Resources()
+            val data = Data(res)
+            val world = SimulationWorld(res, data)
+            world.load(mapIndex)
+
+            val script = InputScript.patrol(frames)
+            val start = TimeUtils.nanoTime()
+            world.run(frames, script)
+            val elapsed = TimeUtils.nanoTime() - start
+
+            Gdx.app.log(TAG, "map $mapIndex: $frames frames in ${elapsed / 1000000} ms " +
+                    "(${elapsed / frames / 1000} us/frame), ${world.engine.entities.size()} entities, " +
+                    "player at ${Mapper.POS_MAPPER[world.player].run { "$x, $y" }}, dead: ${world.playerDead}")
+
+            world.dispose()
+            res.dispose()
+            Gdx.app.exit()
+        }
+    }, HeadlessApplicationConfiguration())
+}
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.symbol.game.headless
+
+import com.badlogic.gdx.utils.Array
+import com.badlogic.gdx.utils.IntMap
+import com.symbol.game.input.KeyInputHandler
+
+class InputScript {
+
+    private val events = IntMap<Array<(KeyInputHandler) -> Unit>>()
+
+    fun at(frame: Int, action: (KeyInputHandler) -> Unit) : InputScript {
+        val actions = events[frame] ?: Array<(KeyInputHandler) -> Unit>().also { events.put(frame, it) }
+        actions.add(action)
+        return this
+    }
+
+    fun apply(frame: Int, handler: KeyInputHandler) {
+        events[frame]?.forEach { it(handler) }
+    }
+
+    companion object {
+
+        // walks back and forth across the map, jumping and shooting on fixed beats
+        fun patrol(frames: Int, turnEvery: Int = 300, jumpEvery: Int = 45, shootEvery: Int = 20) : InputScript {
+            val script = InputScript()
+            for (frame in 0 until frames) {
+                if (frame % turnEvery == 0) {
+                    val right = (frame / turnEvery) % 2 == 0
+                    script.at(frame) {
+                        it.stop(!right)
+                        it.move(right)
+                    }
+                }
+                if (frame % jumpEvery == 0) script.at(frame) { it.jump() }
+                if (frame % shootEvery == 0) script.at(frame) { it.shoot() }
+                if (frame % shootEvery == 1) script.at(frame) { it.release() }
+            }
+            return script
+        }
+
+    }
+
+}
\ No newline at end of file
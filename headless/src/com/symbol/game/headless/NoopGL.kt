@@ -0,0 +1,31 @@
+package com.symbol.game.headless
+
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.graphics.GL20
+import java.lang.reflect.Proxy
+import java.nio.IntBuffer
+
+// answers every GL call with a zero value so textures and shaders can be created without a context
+object NoopGL {
+
+    fun install() {
+        val gl = Proxy.newProxyInstance(GL20::class.java.classLoader, arrayOf(GL20::class.java)) { _, method, args ->
+            // shaders get a handle and report a successful compile and link so SpriteCache can be built
+            if ((method.name == "glGetShaderiv" || method.name == "glGetProgramiv") &&
+                    (args[1] == GL20.GL_COMPILE_STATUS || args[1] == GL20.GL_LINK_STATUS)) {
+                (args[2] as IntBuffer).put(0, 1)
+            }
+            when {
+                method.name == "glCreateShader" || method.name == "glCreateProgram" -> 1
+                method.returnType == Int::class.javaPrimitiveType -> 0
+                method.returnType == Boolean::class.javaPrimitiveType -> false
+                method.returnType == Float::class.javaPrimitiveType -> 0f
+                method.returnType == String::class.java -> ""
+                else -> null
+            }
+        } as GL20
+        Gdx.gl = gl
+        Gdx.gl20 = gl
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,110 @@
+package com.symbol.game.headless
+
+import com.badlogic.gdx.ApplicationAdapter
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.backends.headless.HeadlessApplication
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration
+import com.badlogic.gdx.maps.objects.RectangleMapObject
+import com.badlogic.gdx.maps.tiled.TiledMap
+import com.badlogic.gdx.maps.tiled.TmxMapLoader
+import com.badlogic.gdx.math.MathUtils
+import com.badlogic.gdx.utils.TimeUtils
+import com.symbol.game.ecs.ChunkedSystem
+import com.symbol.game.ecs.ForkJoinSystemRunner
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.SystemRunner
+import com.symbol.game.ecs.entity.EnemyType
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+import kotlin.system.exitProcess
+
+private const val TAG = "Parallel"
+private const val FRAMES = 600
+private const val SEED = 0x5eedL
+private const val MAP = "map/map_0.tmx"
+// every Percent brings five orbiting satellites along
+private const val PERCENTS = 400
+private const val NABLAS = 1000
+// small enough that every chunked loop is split into plenty of chunks
+private const val CHUNK_SIZE = 16
+
+// ./gradlew headless:parallel
+fun main() {
+    HeadlessApplication(object : ApplicationAdapter() {
+        override fun create() {
+            NoopGL.install()
+            val res = Resources()
+            val data = Data(res)
+            val threads = maxOf(Runtime.getRuntime().availableProcessors(), 2)
+
+            val sequential = run(res, data, SystemRunner.Sequential)
+            val parallel = run(res, data, ForkJoinSystemRunner(threads))
+
+            val mismatch = (0 until FRAMES).firstOrNull { sequential.checksums[it] != parallel.checksums[it] }
+            Gdx.app.log(TAG, "sequential ${sequential.millis} ms, fork-join on $threads threads ${parallel.millis} ms")
+            if (mismatch == null) Gdx.app.log(TAG, "$FRAMES frames bit-identical")
+            else Gdx.app.log(TAG, "frames differ from frame $mismatch on")
+
+            res.dispose()
+            exitProcess(if (mismatch == null) 0 else 1)
+        }
+    }, HeadlessApplicationConfiguration())
+}
+
+private class Run(val checksums: LongArray, val millis: Long)
+
+private fun run(res: Resources, data: Data, runner: SystemRunner) : Run {
+    MathUtils.random.setSeed(SEED)
+    val world = SimulationWorld(res, data, runner)
+    world.load(stressMap())
+    world.engine.systems.forEach {
+        if (it is ChunkedSystem) {
+            it.threshold = 0
+            it.chunkSize = CHUNK_SIZE
+        }
+    }
+
+    val script = InputScript.patrol(FRAMES)
+    val checksums = LongArray(FRAMES)
+    val start = TimeUtils.millis()
+    for (frame in 0 until FRAMES) {
+        world.step(script)
+        checksums[frame] = checksum(world)
+    }
+    val millis = TimeUtils.millis() - start
+
+    world.dispose()
+    return Run(checksums, millis)
+}
+
+// map 0 crowded with orbiting Percents and falling Nablas
+private fun stressMap() : TiledMap {
+    val map = TmxMapLoader().load(MAP)
+    val objects = map.layers["enemy"].objects
+    val width = map.properties["width", Int::class.java] * map.properties["tilewidth", Int::class.java]
+    val height = map.properties["height", Int::class.java] * map.properties["tileheight", Int::class.java]
+    for (i in 0 until PERCENTS + NABLAS) {
+        val x = (i * 37 % (width - 32)).toFloat() + 16f
+        val y = (i * 53 % (height - 32)).toFloat() + 16f
+        val enemy = RectangleMapObject(x, y, 16f, 16f)
+        enemy.properties.put("type", if (i < PERCENTS) EnemyType.Percent.typeStr else EnemyType.Nabla.typeStr)
+        enemy.properties.put("facingRight", i % 2 == 0)
+        objects.add(enemy)
+    }
+    return map
+}
+
+// the raw bits of everything the chunked loops write
+private fun checksum(world: SimulationWorld) : Long {
+    var checksum = 0L
+    for (entity in world.engine.entities) {
+        Mapper.POS_MAPPER[entity]?.run { checksum = mix(mix(checksum, x), y) }
+        Mapper.VEL_MAPPER[entity]?.run { checksum = mix(mix(checksum, dx), dy) }
+        Mapper.ORBIT_MAPPER[entity]?.run { checksum = mix(checksum, angle) }
+        Mapper.BOUNDING_BOX_MAPPER[entity]?.run { checksum = mix(mix(checksum, rect.x), rect.y) }
+        Mapper.REMOVE_MAPPER[entity]?.run { checksum = checksum * 31 + if (shouldRemove) 1 else 0 }
+    }
+    return checksum
+}
+
+private fun mix(checksum: Long, value: Float) : Long = checksum * 31 + java.lang.Float.floatToRawIntBits(value)
\ No newline at end of file
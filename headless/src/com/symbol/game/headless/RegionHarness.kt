@@ -0,0 +1,124 @@
+package com.symbol.game.headless
+
+import com.badlogic.ashley.core.Entity
+import com.badlogic.gdx.ApplicationAdapter
+import com.badlogic.gdx.Gdx
+import com.badlogic.gdx.backends.headless.HeadlessApplication
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration
+import com.badlogic.gdx.graphics.OrthographicCamera
+import com.badlogic.gdx.maps.objects.RectangleMapObject
+import com.badlogic.gdx.maps.tiled.TiledMap
+import com.badlogic.gdx.maps.tiled.TmxMapLoader
+import com.badlogic.gdx.math.MathUtils
+import com.symbol.game.Config
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.entity.EnemyType
+import com.symbol.game.ecs.system.RegionSystem
+import com.symbol.game.map.TILE_SIZE
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+import kotlin.system.exitProcess
+
+private const val TAG = "Regions"
+private const val FRAMES = 600
+private const val SEED = 0x5eedL
+private const val MAP = "map/map_0.tmx"
+private const val CHUNK = Config.SIM_CHUNK_TILES * TILE_SIZE
+// an enemy alone on the platform right of the player spawn, standing in a damage tile
+private const val ENEMY_X = 360f
+private const val ENEMY_Y = 100f
+// how long after the first damage tile hit the enemy is frozen, and for how long, so it's frozen mid cooldown
+private const val FREEZE_AFTER = 20
+private const val FREEZE_FRAMES = 30
+
+// ./gradlew headless:regions
+fun main() {
+    HeadlessApplication(object : ApplicationAdapter() {
+        override fun create() {
+            NoopGL.install()
+            val res = Resources()
+            val data = Data(res)
+
+            val awake = trace(res, data, -1)
+            val firstHit = (1 until awake.frames).firstOrNull { awake.hp[it] < awake.hp[it - 1] }
+            if (firstHit == null) {
+                Gdx.app.log(TAG, "the enemy never reached the damage tile")
+                exitProcess(1)
+            }
+            val frozen = trace(res, data, firstHit + FREEZE_AFTER)
+
+            // the frozen run skips the frozen frames, so both should agree frame for frame on the awake ones
+            val mismatch = (0 until frozen.frames).firstOrNull {
+                awake.hp[it] != frozen.hp[it] || awake.x[it] != frozen.x[it] || awake.y[it] != frozen.y[it]
+            }
+            val hits = (1 until frozen.frames).count { frozen.hp[it] < frozen.hp[it - 1] }
+            Gdx.app.log(TAG, "first hit on frame $firstHit, frozen for $FREEZE_FRAMES frames $FREEZE_AFTER frames later, $hits hits")
+            if (mismatch == null) Gdx.app.log(TAG, "${frozen.frames} awake frames identical")
+            else Gdx.app.log(TAG, "awake frames differ from frame $mismatch on")
+
+            res.dispose()
+            exitProcess(if (mismatch == null) 0 else 1)
+        }
+    }, HeadlessApplicationConfiguration())
+}
+
+// the enemy's state on every frame it was simulated
+private class EnemyTrace(val hp: IntArray, val x: FloatArray, val y: FloatArray, val frames: Int)
+
+private fun trace(res: Resources, data: Data, freezeFrom: Int) : EnemyTrace {
+    MathUtils.random.setSeed(SEED)
+    val world = SimulationWorld(res, data)
+    world.load(damageMap())
+    val camera = OrthographicCamera()
+    world.engine.getSystem(RegionSystem::class.java).also {
+        it.camera = camera
+        it.radius = 0
+    }
+    // left dormant so nothing but the damage tile acts on it
+    val enemy = enemy(world)
+    Mapper.ACTIVATION_MAPPER[enemy].activationRange = 0f
+
+    val hp = IntArray(FRAMES)
+    val x = FloatArray(FRAMES)
+    val y = FloatArray(FRAMES)
+    var frames = 0
+    for (frame in 0 until FRAMES) {
+        // far enough left that the enemy's chunk is past the region's margin
+        val frozen = frame >= freezeFrom && frame < freezeFrom + FREEZE_FRAMES && freezeFrom >= 0
+        camera.position.set(if (frozen) CHUNK / 2f else ENEMY_X, ENEMY_Y, 0f)
+        world.step()
+        if (frozen) continue
+
+        // gone once the damage tiles have killed it
+        val health = Mapper.HEALTH_MAPPER[enemy] ?: break
+        hp[frames] = health.hp
+        Mapper.POS_MAPPER[enemy].run {
+            x[frames] = this.x
+            y[frames] = this.y
+        }
+        frames++
+    }
+
+    world.dispose()
+    return EnemyTrace(hp, x, y, frames)
+}
+
+private fun enemy(world: SimulationWorld) : Entity = world.engine.entities.first { Mapper.ENEMY_MAPPER[it] != null }
+
+// map 0 with its enemies swapped for one EConstant, plenty of health, over a damage tile
+private fun damageMap() : TiledMap {
+    val map = TmxMapLoader().load(MAP)
+    val enemies = map.layers["enemy"].objects
+    while (enemies.count > 0) enemies.remove(0)
+
+    val enemy = RectangleMapObject(ENEMY_X, ENEMY_Y, 8f, 8f)
+    enemy.properties.put("type", EnemyType.EConstant.typeStr)
+    enemy.properties.put("facingRight", false)
+    enemies.add(enemy)
+
+    val damage = RectangleMapObject(ENEMY_X - 8f, ENEMY_Y - 12f, 24f, 16f)
+    damage.properties.put("type", "damage")
+    damage.properties.put("damage", 1)
+    map.layers["collision"].objects.add(damage)
+    return map
+}
\ No newline at end of file
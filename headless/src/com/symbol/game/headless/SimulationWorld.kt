@@ -0,0 +1,102 @@
+package com.symbol.game.headless
+
+import com.badlogic.ashley.core.PooledEngine
+import com.badlogic.gdx.graphics.OrthographicCamera
+import com.badlogic.gdx.maps.tiled.TiledMap
+import com.badlogic.gdx.utils.Disposable
+import com.symbol.game.Config
+import com.symbol.game.ecs.GameListener
+import com.symbol.game.ecs.Mapper
+import com.symbol.game.ecs.SystemFactory
+import com.symbol.game.ecs.SystemRunner
+import com.symbol.game.ecs.SystemStepper
+import com.symbol.game.ecs.entity.Player
+import com.symbol.game.ecs.system.PlayerSystem
+import com.symbol.game.ecs.system.RemoveSystem
+import com.symbol.game.effects.particle.ParticleSpawner
+import com.symbol.game.input.KeyInputSystem
+import com.symbol.game.map.MapManager
+import com.symbol.game.map.camera.CameraRotation
+import com.symbol.game.util.Data
+import com.symbol.game.util.Resources
+
+const val FIXED_DT = Config.SIM_STEP
+
+// runs GameScreen's systems minus rendering so gameplay can be stepped without a window
+class SimulationWorld(private val res: Resources,
+                      private val data: Data,
+                      runner: SystemRunner = SystemRunner.Sequential) : GameListener, Disposable {
+
+    val engine = PooledEngine()
+    val player = Player(res, data)
+    val input = KeyInputSystem(data)
+
+    private val mapManager = MapManager(engine, res, data)
+    private val cam = OrthographicCamera(Config.V_WIDTH.toFloat(), Config.V_HEIGHT.toFloat())
+    private val stepper = SystemStepper()
+
+    var frame = 0
+        private set
+    var mapInverted = false
+        private set
+    var playerDead = false
+        private set
+
+    init {
+        engine.addEntity(player)
+        SystemFactory.addWorldSystems(engine, player, res, data, this, runner)
+        engine.addSystem(RemoveSystem())
+        engine.addSystem(input)
+        engine.addSystem(PlayerSystem(player, data, this))
+
+        CameraRotation.init(cam)
+    }
+
+    fun load(mapIndex: Int) = load { mapManager.load(mapIndex) }
+
+    fun load(map: TiledMap) = load { mapManager.load(map) }
+
+    private inline fun load(loadMap: () -> Unit) {
+        engine.removeAllEntities()
+        engine.addEntity(player)
+        player.reset()
+
+        loadMap()
+        Mapper.POS_MAPPER[player].set(mapManager.playerSpawnPosition.x, mapManager.playerSpawnPosition.y)
+        SystemFactory.setMapData(engine, mapManager)
+
+        if (!CameraRotation.isEnded()) CameraRotation.end()
+        ParticleSpawner.reset()
+
+        frame = 0
+        mapInverted = false
+        playerDead = false
+    }
+
+    // a listener sees each system's update on its own
+    fun step(script: InputScript? = null, dt: Float = FIXED_DT, listener: SystemStepper.Listener? = null) {
+        script?.apply(frame, input)
+        if (listener != null) stepper.update(engine, dt, listener)
+        else engine.update(dt)
+        ParticleSpawner.update(dt)
+        CameraRotation.update(dt)
+        frame++
+    }
+
+    fun run(frames: Int, script: InputScript? = null) {
+        repeat(frames) { step(script) }
+    }
+
+    override fun onMapInverted(inverted: Boolean) {
+        mapInverted = inverted
+    }
+
+    override fun onPlayerDeath() {
+        playerDead = true
+    }
+
+    override fun dispose() {
+        mapManager.dispose()
+    }
+
+}
\ No newline at end of file